@@ -0,0 +1,25 @@
+package edu.psu.ist;
+
+/**
+ * The outcome of {@link MinesweeperGame#applyMoves(int[])}: one code per
+ * move (in the order given) -- the adjacent mine count of the revealed cell
+ * (0-8), or one of {@link #Lost}, {@link #Flagged}, {@link #NotPlayed} --
+ * along with the index of the move that hit a mine ({@code -1} if none did)
+ * and whether the game is won once the batch has been played.
+ */
+public record BatchResult(byte[] outcomes, int firstLoss, boolean won) {
+
+    /** The move revealed a mine: the game is lost (the board is left as is). */
+    public static final byte Lost = -1;
+
+    /** The cell is flagged, so it wasn't revealed (flags must be removed first). */
+    public static final byte Flagged = -2;
+
+    /** The move came after one that lost the game. */
+    public static final byte NotPlayed = -3;
+
+    /** Returns whether some move of the batch revealed a mine. */
+    public boolean lost() {
+        return firstLoss >= 0;
+    }
+}
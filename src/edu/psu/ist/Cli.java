@@ -1,17 +1,39 @@
 package edu.psu.ist;
 
+import edu.psu.ist.archive.ArchiveReader;
+import edu.psu.ist.archive.ArchiveWriter;
+import edu.psu.ist.generator.NoGuessGenerator;
 import edu.psu.ist.immutableadts.Pair;
 import edu.psu.ist.immutableadts.Result;
+import edu.psu.ist.jfr.BoardLoadEvent;
+import edu.psu.ist.jfr.Jfr;
+import edu.psu.ist.metrics.Histogram;
+import edu.psu.ist.metrics.Metrics;
+import edu.psu.ist.save.AutoSaver;
+import edu.psu.ist.scoring.BatchScorer;
+import edu.psu.ist.server.GameServer;
+import edu.psu.ist.server.LoadGenerator;
+import edu.psu.ist.sim.Coordinator;
+import edu.psu.ist.sim.SimWorker;
+import io.vavr.collection.List;
 
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
-import java.util.Scanner;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Function;
 
 public final class Cli {
 
     public static final String Banner =
-            String.format("Minesweeper 2030 (version: %s)", Version.Current);
+            "Minesweeper 2030 (version: " + Version.Current + ")";
 
     public static final ExampleBoard ExBoard01 =
             new ExampleBoard(1, """
@@ -21,71 +43,433 @@ public final class Cli {
             ____
             """);
 
+    /**
+     * Set (e.g., {@code -Dminesweeper.metrics.file=stats.log}) to have the
+     * engine metrics appended to a file every
+     * {@code minesweeper.metrics.period} seconds (default: 10).
+     */
+    public static final String MetricsFileProp = "minesweeper.metrics.file";
+    public static final String MetricsPeriodProp = "minesweeper.metrics.period";
+
+    /**
+     * The directory interactive games are autosaved to (in the background,
+     * after every move) and {@code --resume}d from; defaults to
+     * {@code ~/.minesweeper2030}. Set it to the empty string to turn
+     * autosave off.
+     */
+    public static final String AutosaveDirProp = "minesweeper.autosave.dir";
+    private static final String AutosaveName = "game";
+
+    private static final String Usage = """
+            usage:
+              Cli [board.swp]                 play a game
+              Cli --resume                    continue the last autosaved game
+              Cli --score <dir> [out.csv]     score every .swp board in dir
+              Cli --generate <dim> <mines> <count> <out dir> [seed]
+                                              generate no-guess boards
+              Cli --serve <port> [idle secs]  host games over tcp
+              Cli --loadgen <port> [sessions] [moves]
+                                              load test a local server
+              Cli --archive <dir> <out.swa>   pack every .swp board in dir into one archive
+              Cli --extract <in.swa> <id>     print board id of an archive
+              Cli --coordinate <workers> <games> [dim] [mines] [seed]
+                                              simulate games across worker jvms
+              Cli --cds-training              play a scripted game (the appcds training run)""";
+
+    private static final Histogram LoadLatency =
+            Metrics.global().histogram("cli.load.latency", Histogram.Unit.Nanos);
+
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].startsWith("--")) {
+            runTool(args);
+            return;
+        }
         System.out.println(Cli.Banner);
-        var scan = new Scanner(System.in);
+        var metricsFile = System.getProperty(MetricsFileProp);
+        if (metricsFile != null) {
+            var period = Long.getLong(MetricsPeriodProp, 10);
+            if (period > 0) {
+                Metrics.global().dumpPeriodically(Path.of(metricsFile), Duration.ofSeconds(period));
+            } else {
+                System.err.println("ignoring " + MetricsPeriodProp + "=" + period + " (must be positive)");
+            }
+        }
+        var in = stdin();
 
         if (args.length == 0) {
             System.out.println("no file passed in, playing sample board...");
             var loadRes = loadFromString(ExBoard01.exampleBoardText);
-            doStartGame(scan, loadRes);
+            doStartGame(in, loadRes, true);
         } else {
             var loadRes = loadFromFile(args[0]);
-            doStartGame(scan, loadRes);
+            doStartGame(in, loadRes, true);
+        }
+    }
+
+    /**
+     * Runs one of the non-interactive (batch) tools selected by the
+     * {@code --option} in {@code args[0]}.
+     */
+    private static void runTool(String[] args) {
+        switch (args[0]) {
+            case String opt when opt.equals("--score") && args.length >= 2 -> {
+                var out = args.length >= 3 ? args[2] : "scores.csv";
+                var threads = Runtime.getRuntime().availableProcessors();
+                switch (BatchScorer.scoreDirectory(Path.of(args[1]), Path.of(out), threads)) {
+                    case Result.Ok(var n) -> System.out.println("scored " + n + " boards into " + out);
+                    case Result.Err(var msg) -> System.err.println(msg);
+                }
+            }
+            case String opt when opt.equals("--generate") && args.length >= 5 -> {
+                var sizes = numbers(Integer::parseInt, args[1], args[2], args[3]);
+                var seed = numbers(Long::parseLong, arg(args, 5, String.valueOf(System.nanoTime())));
+                switch (sizes.flatMap(n -> seed.map(sd -> Pair.of(n, sd.head())))) {
+                    case Result.Ok(var p) -> generate(p.first().get(0), p.first().get(1), p.first().get(2),
+                            Path.of(args[4]), p.second());
+                    case Result.Err(var msg) -> usage(msg);
+                }
+            }
+            case String opt when opt.equals("--serve") && args.length >= 2 -> {
+                switch (numbers(Integer::parseInt, args[1], arg(args, 2, "300"))) {
+                    case Result.Ok(var n) -> serve(n.get(0), Duration.ofSeconds(n.get(1)));
+                    case Result.Err(var msg) -> usage(msg);
+                }
+            }
+            case String opt when opt.equals("--loadgen") && args.length >= 2 -> {
+                switch (numbers(Integer::parseInt, args[1], arg(args, 2, "10000"), arg(args, 3, "20"))) {
+                    case Result.Ok(var n) -> {
+                        try {
+                            System.out.println(LoadGenerator.run("localhost", n.get(0), n.get(1), n.get(2), 16, 40));
+                        } catch (InterruptedException e) {
+                            System.err.println("interrupted");
+                        }
+                    }
+                    case Result.Err(var msg) -> usage(msg);
+                }
+            }
+            case String opt when opt.equals("--archive") && args.length >= 3 -> archive(Path.of(args[1]), Path.of(args[2]));
+            case String opt when opt.equals("--extract") && args.length >= 3 -> {
+                switch (numbers(Integer::parseInt, args[2])) {
+                    case Result.Ok(var n) -> extract(Path.of(args[1]), n.head());
+                    case Result.Err(var msg) -> usage(msg);
+                }
+            }
+            case String opt when opt.equals("--resume") -> {
+                System.out.println(Cli.Banner);
+                var dir = autosaveDir();
+                var loadRes = dir.isEmpty()
+                        ? Result.<SquareBoard, String>err("autosave is turned off (-D" + AutosaveDirProp + "=)")
+                        : AutoSaver.loadLatest(Path.of(dir), AutosaveName);
+                doStartGame(stdin(), loadRes, true);
+            }
+            case String opt when opt.equals("--cds-training") -> cdsTraining();
+            case String opt when opt.equals("--coordinate") && args.length >= 3 -> {
+                var sizes = numbers(Integer::parseInt, args[1], arg(args, 3, "16"), arg(args, 4, "40"));
+                var seeds = numbers(Long::parseLong, args[2], arg(args, 5, "1"));
+                switch (sizes.flatMap(n -> seeds.map(sd -> Pair.of(n, sd)))) {
+                    case Result.Ok(var p) -> {
+                        try {
+                            var launcher = Coordinator.localJvm(p.first().get(1), p.first().get(2));
+                            System.out.println(new Coordinator(launcher)
+                                    .run(p.first().get(0), p.second().get(1), p.second().get(0)));
+                        } catch (InterruptedException e) {
+                            System.err.println("interrupted");
+                        }
+                    }
+                    case Result.Err(var msg) -> usage(msg);
+                }
+            }
+            case String opt when opt.equals("--sim-worker") && args.length >= 5 -> {
+                var sizes = numbers(Integer::parseInt, args[1], args[2]);
+                var seeds = numbers(Long::parseLong, args[3], args[4], arg(args, 5, "-1"));
+                switch (sizes.flatMap(n -> seeds.map(sd -> Pair.of(n, sd)))) {
+                    case Result.Ok(var p) -> {
+                        // stdout carries binary results only (see Coordinator)
+                        try {
+                            SimWorker.run(p.first().get(0), p.first().get(1),
+                                    p.second().get(0), p.second().get(1), p.second().get(2),
+                                    new FileOutputStream(FileDescriptor.out));
+                        } catch (IOException e) {
+                            System.err.println(e.getMessage());
+                            System.exit(1);
+                        }
+                    }
+                    case Result.Err(var msg) -> {
+                        usage(msg);
+                        System.exit(2);
+                    }
+                }
+            }
+            default -> System.err.println(Usage);
         }
     }
 
+    // prints board id of archive file
+    private static void extract(Path file, int id) {
+        switch (ArchiveReader.open(file)) {
+            case Result.Ok(var reader) -> {
+                try (reader) {
+                    switch (reader.board(id)) {
+                        case Result.Ok(var b) -> System.out.println(b.toString().replace(" ", ""));
+                        case Result.Err(var msg) -> System.err.println(msg);
+                    }
+                } catch (IOException e) {
+                    System.err.println(e.getMessage());
+                }
+            }
+            case Result.Err(var msg) -> System.err.println(msg);
+        }
+    }
+
+    // reports a malformed tool invocation
+    private static void usage(String msg) {
+        System.err.println(msg);
+        System.err.println(Usage);
+    }
+
+    // args[i], or dflt if there are too few args
+    private static String arg(String[] args, int i, String dflt) {
+        return i < args.length ? args[i] : dflt;
+    }
+
     /**
-     * Given a scanner and a (potentially) loaded board, starts the game, or,
+     * Parses each of the (numeric) tool arguments {@code raw} with
+     * {@code parse}, failing at the first that isn't a number.
+     */
+    private static <N> Result<List<N>, String> numbers(Function<String, N> parse, String... raw) {
+        return Result.traverse(Arrays.asList(raw), s -> {
+            try {
+                return Result.ok(parse.apply(s));
+            } catch (NumberFormatException e) {
+                return Result.err("expected a number, got: " + s);
+            }
+        });
+    }
+
+    // hosts games on localhost:port until killed
+    private static void serve(int port, Duration idle) {
+        try (var server = GameServer.start(port, idle)) {
+            System.out.println("serving games on localhost:" + server.port());
+            server.awaitClose();
+        } catch (IOException | InterruptedException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    // writes count no-guess boards (first click: the center) to outDir
+    private static void generate(int dim, int mines, int count, Path outDir, long seed) {
+        if (dim < 1) {
+            usage("the board needs at least one row, got: " + dim);
+            return;
+        }
+        var maxMines = NoGuessGenerator.maxMines(dim, dim / 2, dim / 2);
+        if (mines < 0 || mines > maxMines) {
+            usage("a " + dim + "x" + dim + " no-guess board fits 0 to " + maxMines + " mines, got: " + mines);
+            return;
+        }
+        var boards = new NoGuessGenerator().generate(dim, mines, dim / 2, dim / 2, count, seed, Long.MAX_VALUE);
+        try {
+            Files.createDirectories(outDir);
+            for (int i = 0; i < boards.size(); i++) {
+                Files.writeString(outDir.resolve(String.format("board-%06d.swp", i)),
+                        boards.get(i).toString().replace(" ", "") + "\n");
+            }
+            System.out.println("wrote " + boards.size() + " no-guess boards to " + outDir
+                    + " (first click: " + (dim / 2 + 1) + "," + (dim / 2 + 1) + ")");
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Plays a scripted game -- on the sample board and again on it loaded
+     * from a file, using every kind of move -- so that a jvm run with
+     * {@code -XX:ArchiveClassesAtExit} (see the pom's {@code appcds}
+     * profile) archives the classes an interactive game loads. Autosave is
+     * off: a training run mustn't overwrite the player's saved game.
+     */
+    private static void cdsTraining() {
+        var script = "1,1\nhint\nflag 1,3\nflag 2,3\nchord 3,3\nundo\nredo\nstats\n1,4\nq\n";
+        System.out.println(Cli.Banner);
+        doStartGame(new BufferedReader(new StringReader(script)), loadFromString(ExBoard01.exampleBoardText), false);
+        try {
+            var file = Files.createTempFile("cds-training", ".swp");
+            Files.writeString(file, ExBoard01.exampleBoardText);
+            doStartGame(new BufferedReader(new StringReader(script)), loadFromFile(file.toString()), false);
+            Files.delete(file);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    // packs the .swp boards of dir (in file name order) into an archive
+    private static void archive(Path dir, Path out) {
+        try (var files = Files.list(dir);
+             var writer = ArchiveWriter.create(out, true)) {
+            var names = files.filter(f -> f.toString().endsWith(".swp")).sorted().toList();
+            var skipped = 0;
+            for (var f : names) {
+                switch (loadFromFile(f.toString())) {
+                    case Result.Ok(var b) -> writer.append(b);
+                    case Result.Err(_) -> skipped++;
+                }
+            }
+            System.out.println("archived " + writer.count() + " boards into " + out
+                    + (skipped > 0 ? " (skipped " + skipped + " bad files)" : ""));
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Given the player's input and a (potentially) loaded board, starts the game, or,
      * if an {@link Result.Err} is passed, prints the cause of the load failure
-     * and exits.
+     * and exits. With {@code autosave}, the game is saved as it's played.
      */
-    private static void doStartGame(Scanner scan, Result<SquareBoard, String> loadRes) {
+    private static void doStartGame(BufferedReader in, Result<SquareBoard, String> loadRes, boolean autosave) {
         switch (loadRes) {
             case Result.Ok(var b) -> {
                 MinesweeperGame g = new MinesweeperGame(b);
                 System.out.println(g.renderGameState());
-                doLoop(scan, g);
+                var saver = autosave ? startAutosave(g) : null;
+                var over = doLoop(in, g);
+                if (saver == null) {
+                    return;
+                }
+                if (over) {
+                    saver.finish(g.board()); // (a won or lost game isn't offered by --resume)
+                } else {
+                    saver.close();
+                }
             }
             case Result.Err(var err) -> System.err.println(err);
         }
     }
 
-    private static void doLoop(Scanner scan, MinesweeperGame g) {
+    private static BufferedReader stdin() {
+        return new BufferedReader(new InputStreamReader(System.in));
+    }
+
+    // the player's next line of input -- or the quit sentinel once it runs out
+    private static String nextLine(BufferedReader in) {
+        try {
+            var line = in.readLine();
+            return line == null ? "q" : line;
+        } catch (IOException e) {
+            return "q";
+        }
+    }
+
+    private static String autosaveDir() {
+        return System.getProperty(AutosaveDirProp,
+                Path.of(System.getProperty("user.home"), ".minesweeper2030").toString());
+    }
+
+    // subscribes a background saver to g's moves (null if autosave is off or fails)
+    private static AutoSaver startAutosave(MinesweeperGame g) {
+        var dir = autosaveDir();
+        if (dir.isEmpty()) {
+            return null;
+        }
+        try {
+            var saver = new AutoSaver(Path.of(dir), AutosaveName, AutoSaver.DefaultGenerations);
+            saver.offer(g.board());
+            g.deltas().subscribe(saver);
+            return saver;
+        } catch (IOException | InvalidPathException e) {
+            System.err.println("autosave disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // plays moves until the game is won or lost (true) or the player quits (false)
+    private static boolean doLoop(BufferedReader in, MinesweeperGame g) {
         final var sentinelText = "q";
         System.out.println("enter a row,col number (1-indexed, ex: 1,4) - type "
-                + sentinelText + " to quit");
-        var rawInput = scan.nextLine();
+                + sentinelText + " to quit, flag/chord row,col, hint, undo/redo, stats for engine metrics");
+        var rawInput = nextLine(in);
         if (rawInput.equalsIgnoreCase("q")) {
             System.out.println("quitting - good game");
-            return;
+            return false;
+        }
+        if (rawInput.trim().equalsIgnoreCase("stats")) {
+            System.out.println(Metrics.global().render());
+            return doLoop(in, g);
+        }
+        if (rawInput.trim().equalsIgnoreCase("hint")) {
+            System.out.println(g.hint()
+                    .map(h -> "try " + (h.row() + 1) + "," + (h.col() + 1) + (h.safe()
+                            ? " (safe)"
+                            : " (%.0f%% chance of a mine)".formatted(100 * h.risk())))
+                    .orElse("nothing left to uncover"));
+            return doLoop(in, g);
+        }
+        if (rawInput.trim().equalsIgnoreCase("undo") || rawInput.trim().equalsIgnoreCase("redo")) {
+            var undo = rawInput.trim().equalsIgnoreCase("undo");
+            var moved = undo ? g.undo() : g.redo();
+            System.out.println(moved ? g.renderGameState() : "nothing to " + rawInput.trim());
+            return doLoop(in, g);
+        }
+        var cmd = rawInput.trim().toLowerCase();
+        if (cmd.startsWith("flag ") || cmd.startsWith("chord ")) {
+            return doFlagOrChord(in, g, cmd);
         }
         var parsedInput = parseInputText(rawInput);
 
-        switch (parsedInput) {
-            case Result.Ok(_) when g.inWinState() ->
-                    System.out.println("you win!");
+        return switch (parsedInput) {
+            case Result.Ok(_) when g.inWinState() -> {
+                System.out.println("you win!");
+                yield true;
+            }
             case Result.Ok(Pair(var row, var col)) -> {
                 var row2 = row - 1;
                 var col2 = col - 1;
                 var tpe = g.revealSquare(row2, col2);
-                switch (tpe) {
-                    case TileType.Mine _ -> System.out.println("you lose");
+                yield switch (tpe) {
+                    case TileType.Mine _ -> {
+                        System.out.println("you lose");
+                        yield true;
+                    }
                     default -> {
                         g.advanceGame(row2, col2);
                         System.out.println();
                         System.out.println(g.renderGameState());
                         System.out.println();
-                        doLoop(scan, g);
+                        yield doLoop(in, g);
                     }
-                }
+                };
             }
             case Result.Err(var msg) -> {
                 System.err.println(g);
                 System.err.println("bad input: " + msg);
-                doLoop(scan, g); // loop again
+                yield doLoop(in, g); // loop again
+            }
+        };
+    }
+
+    // handles "flag row,col" (toggles a flag) and "chord row,col"
+    private static boolean doFlagOrChord(BufferedReader in, MinesweeperGame g, String cmd) {
+        var flag = cmd.startsWith("flag ");
+        switch (parseInputText(cmd.substring(cmd.indexOf(' ') + 1))) {
+            case Result.Ok(Pair(var row, var col)) when flag -> {
+                if (!g.toggleFlag(row - 1, col - 1)) {
+                    System.out.println("can't flag an uncovered square");
+                }
+                System.out.println(g.renderGameState());
+            }
+            case Result.Ok(Pair(var row, var col)) -> {
+                if (g.chord(row - 1, col - 1) < 0) {
+                    System.out.println("you lose");
+                    return true;
+                }
+                System.out.println(g.inWinState() ? "you win!" : g.renderGameState());
+                if (g.inWinState()) {
+                    return true;
+                }
             }
+            case Result.Err(var msg) -> System.err.println("bad input: " + msg);
         }
+        return doLoop(in, g);
     }
 
     /**
@@ -104,12 +488,34 @@ public final class Cli {
      * <em>syntactically</em> invalid board in the file (i.e.: not square or
      * with unrecognized tile types)
      */
-    public static Result<SquareBoard, String> loadFromFile(String fileName) {// not used atm
-        try (var scan = new Scanner(Path.of(fileName))) {
+    public static Result<SquareBoard, String> loadFromFile(String fileName) {
+        var start = System.nanoTime();
+        if (!Jfr.isActive()) {
+            var result = loadFromFileUntimed(fileName);
+            LoadLatency.record(System.nanoTime() - start);
+            return result;
+        }
+        var evt = new BoardLoadEvent();
+        evt.begin();
+        var result = loadFromFileUntimed(fileName);
+        evt.end();
+        LoadLatency.record(System.nanoTime() - start);
+        if (evt.shouldCommit()) {
+            evt.fileName = fileName;
+            evt.loaded = result.isOk();
+            evt.dimension = result.isOk() ? result.get().dimension() : 0;
+            evt.cellsTouched = evt.dimension * evt.dimension;
+            evt.commit();
+        }
+        return result;
+    }
+
+    private static Result<SquareBoard, String> loadFromFileUntimed(String fileName) {
+        try (var reader = Files.newBufferedReader(Path.of(fileName))) {
             if (!fileName.endsWith(".swp")) {
                 return Result.err("file must end in a .swp extension");
             }
-            return processBoardFromScanner(scan);
+            return processBoard(reader);
         } catch (IOException e) {
             return Result.err(e.getMessage());
         } catch (InvalidPathException e) {
@@ -118,17 +524,22 @@ public final class Cli {
     }
 
     public static Result<SquareBoard, String> loadFromString(String boardText) {
-        try (var scan = new Scanner(boardText)) {
-            return processBoardFromScanner(scan);
+        var start = System.nanoTime();
+        try (var reader = new BufferedReader(new StringReader(boardText))) {
+            return processBoard(reader);
         } catch (Exception e) {
             return Result.err(e.getMessage());
+        } finally {
+            LoadLatency.record(System.nanoTime() - start);
         }
     }
 
-    private static Result<SquareBoard, String> processBoardFromScanner(Scanner scan) {
+    // (a plain reader rather than a Scanner: no regex machinery to load)
+    private static Result<SquareBoard, String> processBoard(BufferedReader reader) throws IOException {
         var builder = new SquareBoard.ValidatingBoardBuilder();
-        while (scan.hasNextLine()) {
-            builder.row(scan.nextLine());
+        String line;
+        while ((line = reader.readLine()) != null) {
+            builder.row(line);
         }
         return builder.build();
     }
@@ -0,0 +1,190 @@
+package edu.psu.ist;
+
+import io.vavr.collection.Vector;
+
+import java.util.ArrayDeque;
+
+/**
+ * A bounded undo/redo history of the boards a {@link MinesweeperGame} moves
+ * through.
+ * <p>
+ * Since {@link SquareBoard} is persistent, consecutive boards share all but
+ * the path to the updated tile(s) -- so the most recent moves are kept as
+ * {@link Snapshot}s holding the boards themselves: undo/redo just swaps which
+ * board the game points at. Once the history's (estimated) footprint exceeds
+ * its byte budget, the oldest snapshots are compacted into {@link Delta}s
+ * (packed tile changes, which no longer pin any board structure) and, if
+ * that's still not enough, the oldest deltas are dropped.
+ * <p>
+ * Entries are ordered oldest to newest: {@code compacted ++ recent}. Undoing
+ * past the recent snapshots replays a delta's inverse onto the current
+ * board (touching only the changed tiles -- never copying the whole board).
+ */
+public final class GameHistory {
+
+    /** The default byte budget for a game's history (4 MiB). */
+    public static final long DefaultMaxBytes = 4L << 20;
+
+    // rough jvm object sizes used to estimate the footprint of an entry
+    private static final long TrieNodeBytes = 16 + 32 * 4; // header + 32 refs
+    private static final long BoardOverheadBytes = 64;     // SquareBoard + Row
+    private static final long DeltaOverheadBytes = 32;
+    private static final long BytesPerPackedChange = 4 * Integer.BYTES;
+
+    sealed interface Entry {
+        long bytes();
+    }
+
+    /**
+     * A move in its uncompacted form: both boards are kept, so undo/redo is
+     * a pointer swap.
+     */
+    record Snapshot(SquareBoard before, SquareBoard after,
+                    Vector<TileChange> changes, long bytes) implements Entry {}
+
+    /**
+     * A compacted move: {@code packed} holds (row, col, before, after)
+     * quadruples with tiles in their {@link TileType#code()} form.
+     */
+    record Delta(int[] packed) implements Entry {
+        @Override public long bytes() {
+            return DeltaOverheadBytes + (long) packed.length * Integer.BYTES;
+        }
+    }
+
+    private final long maxBytes;
+    private final ArrayDeque<Delta> compacted = new ArrayDeque<>();
+    private final ArrayDeque<Snapshot> recent = new ArrayDeque<>();
+    private final ArrayDeque<Entry> redo = new ArrayDeque<>();
+    private long bytes = 0;
+
+    public GameHistory(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean canUndo() {
+        return !recent.isEmpty() || !compacted.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redo.isEmpty();
+    }
+
+    /** Returns the (estimated) number of bytes retained by this history. */
+    public long retainedBytes() {
+        return bytes;
+    }
+
+    /** Returns the number of moves that can currently be undone. */
+    public int undoDepth() {
+        return recent.size() + compacted.size();
+    }
+
+    /**
+     * Records a move that took the game from {@code before} to {@code after}
+     * (which differ exactly by {@code changes}). Clears any redo-able moves.
+     */
+    public void record(SquareBoard before, SquareBoard after, Vector<TileChange> changes) {
+        for (var e : redo) {
+            bytes -= e.bytes();
+        }
+        redo.clear();
+        var snap = new Snapshot(before, after, changes, snapshotBytes(after, changes.size()));
+        recent.addLast(snap);
+        bytes += snap.bytes();
+        enforceBudget();
+    }
+
+    /**
+     * The board an undo/redo moved to, along with the tile changes (in
+     * application order) that took the previous board there.
+     */
+    public record Step(SquareBoard board, Vector<TileChange> changes) {}
+
+    /**
+     * Steps back to the board preceding {@code current} (which must be the
+     * board after the latest recorded/redone move); the move becomes
+     * redo-able.
+     * <p>
+     * precondition: {@link #canUndo()}
+     */
+    public Step undo(SquareBoard current) {
+        if (!recent.isEmpty()) {
+            var snap = recent.pollLast();
+            redo.addLast(snap);
+            return new Step(snap.before(), snap.changes().reverse().map(TileChange::inverse));
+        }
+        var delta = compacted.pollLast();
+        redo.addLast(delta);
+        var changes = unpack(delta.packed(), true);
+        return new Step(current.withUpdatedTiles(changes), changes);
+    }
+
+    /**
+     * Steps forward from {@code current} by re-applying the most recently
+     * undone move.
+     * <p>
+     * precondition: {@link #canRedo()}
+     */
+    public Step redo(SquareBoard current) {
+        var entry = redo.pollLast();
+        return switch (entry) {
+            case Snapshot s -> {
+                recent.addLast(s);
+                yield new Step(s.after(), s.changes());
+            }
+            case Delta d -> {
+                compacted.addLast(d);
+                var changes = unpack(d.packed(), false);
+                yield new Step(current.withUpdatedTiles(changes), changes);
+            }
+        };
+    }
+
+    private void enforceBudget() {
+        // first: compact (oldest first), keeping at least the latest snapshot
+        while (bytes > maxBytes && recent.size() > 1) {
+            var snap = recent.pollFirst();
+            var delta = new Delta(pack(snap.changes()));
+            bytes += delta.bytes() - snap.bytes();
+            compacted.addLast(delta);
+        }
+        // then: forget the oldest moves altogether
+        while (bytes > maxBytes && !compacted.isEmpty()) {
+            bytes -= compacted.pollFirst().bytes();
+        }
+    }
+
+    /**
+     * Estimates the structure a snapshot pins that isn't shared with its
+     * neighbours: each updated tile path-copies one trie path in the row's
+     * vector and one in the board's vector of rows.
+     */
+    private static long snapshotBytes(SquareBoard after, int changeCount) {
+        var depth = Math.max(1, (int) Math.ceil(Math.log(Math.max(after.dimension(), 2)) / Math.log(32)));
+        return BoardOverheadBytes + (long) changeCount * 2 * depth * TrieNodeBytes;
+    }
+
+    private static int[] pack(Vector<TileChange> changes) {
+        var packed = new int[changes.size() * 4];
+        var i = 0;
+        for (var c : changes) {
+            packed[i++] = c.row();
+            packed[i++] = c.col();
+            packed[i++] = c.before().code();
+            packed[i++] = c.after().code();
+        }
+        return packed;
+    }
+
+    private static Vector<TileChange> unpack(int[] packed, boolean inverse) {
+        var changes = Vector.<TileChange>empty();
+        for (int i = 0; i < packed.length; i += 4) {
+            var c = new TileChange(packed[i], packed[i + 1],
+                    TileType.ofCode(packed[i + 2]), TileType.ofCode(packed[i + 3]));
+            // undo applies the inverses in reverse order
+            changes = inverse ? changes.prepend(c.inverse()) : changes.append(c);
+        }
+        return changes;
+    }
+}
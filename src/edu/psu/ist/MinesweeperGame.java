@@ -2,9 +2,22 @@ package edu.psu.ist;
 
 import edu.psu.ist.TileType.Mine;
 import edu.psu.ist.TileType.Hidden;
-import edu.psu.ist.immutableadts.Pair;
+import edu.psu.ist.events.BoardDelta;
+import edu.psu.ist.events.DeltaPublisher;
+import edu.psu.ist.jfr.Jfr;
+import edu.psu.ist.jfr.MoveEvent;
+import edu.psu.ist.metrics.Counter;
+import edu.psu.ist.metrics.Histogram;
+import edu.psu.ist.metrics.Metrics;
+import edu.psu.ist.solver.HintService;
 import io.vavr.collection.Vector;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Flow;
 import java.util.function.Predicate;
 
 import static edu.psu.ist.TileType.*;
@@ -19,12 +32,38 @@ import static edu.psu.ist.TileType.*;
  */
 public final class MinesweeperGame {
 
+    // always-on engine metrics (see the cli's "stats" command)
+    private static final Counter Moves =
+            Metrics.global().counter("game.moves");
+    private static final Histogram RevealLatency =
+            Metrics.global().histogram("game.reveal.latency", Histogram.Unit.Nanos);
+    private static final Histogram MoveLatency =
+            Metrics.global().histogram("game.move.latency", Histogram.Unit.Nanos);
+    private static final Histogram CellsUncovered =
+            Metrics.global().histogram("game.move.cellsUncovered", Histogram.Unit.Count);
+    private static final Histogram MoveAllocated =
+            Metrics.global().histogram("game.move.allocated", Histogram.Unit.Bytes);
+
     /**
      * The internal representation of the board on which the
      * game is played.
      */
     private SquareBoard board;
 
+    /** The moves that can be undone/redone (see {@link #undo()}). */
+    private final GameHistory history;
+
+    /** Where the tiles changed by each move are published (see {@link #deltas()}). */
+    private final DeltaPublisher deltas = new DeltaPublisher();
+    private long moveSeq = 0;
+
+    /**
+     * Cached analysis behind {@link #hint()}, kept current by
+     * {@link #publish} (created on the first hint: games that never ask
+     * don't load the solver).
+     */
+    private HintService hints;
+
     /**
      * Initializes the game with a user-specified {@code startingBoard}.
      *
@@ -32,7 +71,16 @@ public final class MinesweeperGame {
      *                                  malformed.
      */
     public MinesweeperGame(SquareBoard startingBoard) {
+        this(startingBoard, GameHistory.DefaultMaxBytes);
+    }
+
+    /**
+     * Initializes the game with a user-specified {@code startingBoard}, whose
+     * undo history retains (approximately) at most {@code historyBytes}.
+     */
+    public MinesweeperGame(SquareBoard startingBoard, long historyBytes) {
         board = startingBoard;
+        history = new GameHistory(historyBytes);
     }
 
     /**
@@ -45,97 +93,333 @@ public final class MinesweeperGame {
                 .row(hidden(), hidden(), mine(), hidden()) //
                 .row(hidden(), hidden(), hidden(), hidden()) //
                 .row(hidden(), hidden(), hidden(), hidden()).build().get();
+        history = new GameHistory(GameHistory.DefaultMaxBytes);
+    }
+
+    /** Returns the (immutable) board as it stands after the latest move. */
+    public SquareBoard board() {
+        return board;
+    }
+
+    /** Returns the number of rows (and columns) of the board being played. */
+    public int dimension() {
+        return board.dimension();
     }
 
     /** Returns the type of tile located at: row,col. */
     public TileType revealSquare(int row, int col) {
+        var start = System.nanoTime();
+        var evt = beginMove();
         // first: query the board to see what tile type exists at (row, col)
         TileType tpe = board.tileAt(row, col);
 
         // match on whatever type of tile was selected:
-        return switch (tpe) {
+        var result = switch (tpe) {
             case Mine.MineInst -> mine();
             case TileType.Uncovered t -> t;
+            case Flagged f -> f; // flags have to be removed before revealing
             case Hidden.HiddenInst -> {
                 int adjacentMines = adjacentMineCount(row, col);
                 yield new Uncovered(adjacentMines);
             }
         };
+        RevealLatency.record(System.nanoTime() - start);
+        if (evt != null && endMove(evt)) {
+            commitMove(evt, "reveal", row, col,
+                    tpe == hidden() ? 1 + neighbourCount(row, col) : 1);
+        }
+        return result;
     }
 
     /**
      * Uncovers the square at {@code row,col} mutating the board
-     * with the uncovered/computed {@link TileType}.
+     * with the uncovered/computed {@link TileType}. Uncovering a square with
+     * no adjacent mines also uncovers the rest of its opening (see
+     * {@link OpeningIndex}) in the same move. A square that's already
+     * uncovered is left alone (and records no undo step).
      */
     public void advanceGame(int row, int col) {
+        if (board.tileAt(row, col) instanceof Flagged) {
+            return;
+        }
+        var start = System.nanoTime();
+        var allocStart = Metrics.threadAllocatedBytes();
+        var evt = beginMove();
+        var before = board.tileAt(row, col);
         // compute the tile selected by row,col
         var tpe = revealSquare(row, col);
-        updateBoard(row, col, tpe);
+        var changes = switch (tpe) {
+            case TileType t when t.equals(before) -> Vector.<TileChange>empty();
+            case Uncovered(var ct) when ct == 0 && before == hidden() -> openingChanges(row, col);
+            default -> Vector.of(new TileChange(row, col, before, tpe));
+        };
+        if (!changes.isEmpty()) {
+            applyChanges(changes);
+        }
+        var committing = evt != null && endMove(evt);
+
+        var uncovered = changes.count(c -> c.before() == hidden());
+        Moves.increment();
+        MoveLatency.record(System.nanoTime() - start);
+        CellsUncovered.record(uncovered);
+        if (allocStart >= 0) {
+            MoveAllocated.record(Metrics.threadAllocatedBytes() - allocStart);
+        }
+        if (committing) {
+            // the reveal (tile + neighbors) plus the write of each changed tile
+            commitMove(evt, "advance", row, col, 1 + neighbourCount(row, col) + changes.size());
+        }
     }
 
-    public boolean inWinState() {
-        var hiddenCount = board.compute(0, (t, acc) -> switch (t) {
-            case Hidden _ -> acc + 1;
-            default -> acc;
+    /**
+     * Returns the changes uncovering every still hidden cell of the opening
+     * containing zero cell {@code row,col} -- a walk over the opening's
+     * precomputed cells rather than a search.
+     */
+    private Vector<TileChange> openingChanges(int row, int col) {
+        var index = board.openings();
+        var changes = new ArrayList<TileChange>(index.openingSize(index.openingAt(row, col)));
+        addOpeningChanges(row, col, changes, new BitSet());
+        return Vector.ofAll(changes);
+    }
+
+    // adds (to changes) uncovering the hidden cells of zero cell row,col's
+    // opening, skipping (and then marking) cells in seen (flagged cells
+    // stay flagged)
+    private void addOpeningChanges(int row, int col, ArrayList<TileChange> changes, BitSet seen) {
+        var index = board.openings();
+        var dim = board.dimension();
+        index.forEachCell(index.openingAt(row, col), cell -> {
+            var r = cell / dim;
+            var c = cell % dim;
+            if (!seen.get(cell) && board.tileAt(r, c) == hidden()) {
+                seen.set(cell);
+                changes.add(new TileChange(r, c, hidden(), un(index.adjacentMines(r, c))));
+            }
         });
-        return hiddenCount == 0;
     }
 
     /**
-     * Returns a vector of coordinates for all (in-bound) cells that are left,
-     * right, top, down, and diagonal to {@code row,col)}.
+     * Plays a batch of reveals -- {@code moves} holds (row, col) pairs --
+     * as though each were a {@link #revealSquare} followed by
+     * {@link #advanceGame}, but in one pass: each cell is read once, its
+     * count comes from the board's {@link OpeningIndex}, the win check is a
+     * running tally rather than a scan of the board, and everything the
+     * batch uncovers is applied as a single board update (so a single undo
+     * reverts the whole batch).
+     * <p>
+     * Play stops at the first mine (which, as with {@link #revealSquare},
+     * leaves that cell as is); any later moves are
+     * {@link BatchResult#NotPlayed}.
+     *
+     * @throws IllegalArgumentException if {@code moves} has odd length.
+     * @throws IndexOutOfBoundsException if a move is off the board (the
+     *         board is then left as is).
      */
-    private Vector<Pair<Integer, Integer>> adjacentLocs(int row, int col) {
+    public BatchResult applyMoves(int[] moves) {
+        if (moves.length % 2 != 0) {
+            throw new IllegalArgumentException("moves must be (row, col) pairs");
+        }
         var dim = board.dimension();
+        for (var coord : moves) {
+            Objects.checkIndex(coord, dim);
+        }
+        var evt = beginMove();
+        var outcomes = new byte[moves.length / 2];
+        var index = board.openings();
+        var changes = new ArrayList<TileChange>();
+        var seen = new BitSet(); // cells uncovered by this batch (not yet on the board)
+        var hiddenLeft = board.hiddenCount();
+        var firstLoss = -1;
+        var played = 0;
+        while (played < outcomes.length && firstLoss < 0) {
+            var row = moves[2 * played];
+            var col = moves[2 * played + 1];
+            var cell = row * dim + col;
+            // (cells uncovered earlier in the batch aren't on the board yet)
+            var tile = seen.get(cell) ? un(index.adjacentMines(row, col)) : board.tileAt(row, col);
+            outcomes[played] = switch (tile) {
+                case Mine _ -> {
+                    firstLoss = played;
+                    yield BatchResult.Lost;
+                }
+                case Flagged _ -> BatchResult.Flagged;
+                case Uncovered(var ct) -> (byte) ct;
+                case Hidden _ -> {
+                    var ct = index.adjacentMines(row, col);
+                    var size = changes.size();
+                    if (ct == 0) {
+                        addOpeningChanges(row, col, changes, seen);
+                    } else {
+                        seen.set(cell);
+                        changes.add(new TileChange(row, col, hidden(), un(ct)));
+                    }
+                    hiddenLeft -= changes.size() - size;
+                    yield (byte) ct;
+                }
+            };
+            played++;
+        }
+        Arrays.fill(outcomes, played, outcomes.length, BatchResult.NotPlayed);
 
-        var adjacentLocs = Vector.of( //
-                Pair.of(row - 1, col), // top
-                Pair.of(row + 1, col), // bottom
-                Pair.of(row, col + 1), // right
-                Pair.of(row, col - 1), // left
-                Pair.of(row + 1, col - 1), // bottom-left
-                Pair.of(row + 1, col + 1), // bottom-right
-                Pair.of(row - 1, col - 1), // top-left
-                Pair.of(row - 1, col + 1)); // top-right
-
-        return adjacentLocs.filter((p) -> switch (p) {
-            case Pair(var x, var y) -> (x >= 0 && x < dim) && (y >= 0 && y < dim);
-        });
+        if (!changes.isEmpty()) {
+            applyChanges(Vector.ofAll(changes));
+            CellsUncovered.record(changes.size());
+        }
+        Moves.add(played);
+        if (evt != null && endMove(evt) && played > 0) {
+            commitMove(evt, "batch", moves[0], moves[1], played + changes.size());
+        }
+        return new BatchResult(outcomes, firstLoss, hiddenLeft == 0);
     }
 
-    // protected to facilitate more direct testing
-    protected int adjacentMineCount(int row, int col) {
+    /**
+     * Flags the (unrevealed) cell at {@code row,col}, or unflags it if it's
+     * already flagged. Returns false (and does nothing) if the cell is
+     * uncovered.
+     */
+    public boolean toggleFlag(int row, int col) {
+        var tpe = board.tileAt(row, col);
+        var toggled = switch (tpe) {
+            case Mine _ -> flagged(true);
+            case Hidden _ -> flagged(false);
+            case Flagged(var overMine) -> overMine ? mine() : hidden();
+            case Uncovered _ -> tpe;
+        };
+        if (toggled == tpe) {
+            return false;
+        }
+        applyChanges(Vector.of(new TileChange(row, col, tpe, toggled)));
+        return true;
+    }
+
+    /**
+     * "Chords" the uncovered number at {@code row,col}: if exactly that many
+     * of its neighbours are flagged, every other unrevealed neighbour is
+     * uncovered (cascading through openings) as a single move -- one board
+     * update, however many cells change.
+     * <p>
+     * Returns the number of cells uncovered (0 if the number isn't
+     * satisfied by flags), or -1 if a (wrongly flagged around) mine would be
+     * uncovered -- the game is lost and, as with {@link #revealSquare}
+     * returning a mine, the board is left as is.
+     */
+    public int chord(int row, int col) {
+        var start = System.nanoTime();
+        var allocStart = Metrics.threadAllocatedBytes();
+        var evt = beginMove();
+        var uncovered = chordMove(row, col);
+        MoveLatency.record(System.nanoTime() - start);
+        if (allocStart >= 0) {
+            MoveAllocated.record(Metrics.threadAllocatedBytes() - allocStart);
+        }
+        if (evt != null && endMove(evt)) {
+            // the number and its neighbours, plus the write of each uncovered tile
+            commitMove(evt, "chord", row, col, 1 + neighbourCount(row, col) + Math.max(uncovered, 0));
+        }
+        return uncovered;
+    }
+
+    // the chord itself (chord() wraps it with metrics and the jfr event)
+    private int chordMove(int row, int col) {
+        if (!(board.tileAt(row, col) instanceof Uncovered(var count)) || count == 0) {
+            return 0;
+        }
         var dim = board.dimension();
+        var table = board.neighbours();
+        var cell = row * dim + col;
+        var flags = 0;
+        for (int i = table.start(cell); i < table.end(cell); i++) {
+            if (board.tileAt(table.at(i) / dim, table.at(i) % dim) instanceof Flagged) {
+                flags++;
+            }
+        }
+        if (flags != count) {
+            return 0;
+        }
+        var index = board.openings();
+        var changes = new ArrayList<TileChange>();
+        var seen = new BitSet();
+        for (int i = table.start(cell); i < table.end(cell); i++) {
+            var r = table.at(i) / dim;
+            var c = table.at(i) % dim;
+            switch (board.tileAt(r, c)) {
+                case Mine _ -> {
+                    return -1;
+                }
+                case Hidden _ when index.adjacentMines(r, c) == 0 -> addOpeningChanges(r, c, changes, seen);
+                case Hidden _ -> {
+                    if (!seen.get(table.at(i))) {
+                        seen.set(table.at(i));
+                        changes.add(new TileChange(r, c, hidden(), un(index.adjacentMines(r, c))));
+                    }
+                }
+                default -> { } // flagged or already uncovered
+            }
+        }
+        if (!changes.isEmpty()) {
+            applyChanges(Vector.ofAll(changes));
+            Moves.increment();
+            CellsUncovered.record(changes.size());
+        }
+        return changes.size();
+    }
 
-        // step 1: get xy coordinates for all adjacent cells to (row, col)
-        //         (only those in bounds)
-        var filtered = adjacentLocs(row, col);
+    // a begun move event -- or null while no recording has been started
+    // (see Jfr: until then, the event class isn't even loaded)
+    private static MoveEvent beginMove() {
+        if (!Jfr.isActive()) {
+            return null;
+        }
+        var evt = new MoveEvent();
+        evt.begin();
+        return evt;
+    }
+
+    // ends evt, returning whether it should be committed
+    private static boolean endMove(MoveEvent evt) {
+        evt.end();
+        return evt.shouldCommit();
+    }
 
-        // step 2: filter the adjacent cells for ones that are mines and compute the size of the
-        //         resulting collection/vector
-        return filtered.map(xy -> board.tileAt(xy.first(), xy.second())) //
-                .filter(TileType::isMine) //
-                .size();
+    private void commitMove(MoveEvent evt, String op, int row, int col, int touched) {
+        evt.operation = op;
+        evt.row = row;
+        evt.col = col;
+        evt.dimension = board.dimension();
+        evt.cellsTouched = touched;
+        evt.commit();
     }
 
-    /*private TileType tile(int row, int col) {
+    public boolean inWinState() {
+        // (a flagged safe cell still has to be uncovered)
+        return board.hiddenCount() == 0;
+    }
 
+    /**
+     * Returns the number of cells adjacent to {@code row,col} under the
+     * board's {@link Topology}.
+     */
+    private int neighbourCount(int row, int col) {
+        return board.neighbours().degree(row * board.dimension() + col);
     }
 
-    private SquareBoard floodFill(int row, int col) {
-        return switch (revealSquare(row, col)) {
-            // the mine at row,col is 0 (so not adjacent to any mines)
-            case TileType.Uncovered(var ct) when ct == 0 -> {
-                var neighbors = adjacentLocs(row, col);
-                neighbors.filter(xy -> board.tileAt(xy.first(), xy.second()) == Hidden.HiddenInst)
-                // process potentially all 8 neighboring positions and:
-                // a) reveal the cell at pos (i, j) if it is hidden (ignoring mines)
-                // b) if the revealed cell is also uncovered, recurse
+    // protected to facilitate more direct testing
+    protected int adjacentMineCount(int row, int col) {
+        var dim = board.dimension();
+        var table = board.neighbours();
+        var cell = row * dim + col;
+
+        // walk the (precomputed) neighbours of row,col counting the mines
+        var count = 0;
+        for (int i = table.start(cell); i < table.end(cell); i++) {
+            var nb = table.at(i);
+            if (board.tileAt(nb / dim, nb % dim).isMine()) {
+                count++;
             }
-            // otherwise do nothing
-            default -> board;
-        };
-    }*/
+        }
+        return count;
+    }
 
     /**
      * <pre><code>
@@ -144,27 +428,92 @@ public final class MinesweeperGame {
      * </code></pre>
      */
     public void updateBoard(int row, int col, TileType updateTpe) {
-        board = board.withUpdatedTile(row, col, updateTpe);
+        applyChanges(Vector.of(new TileChange(row, col, board.tileAt(row, col), updateTpe)));
+    }
+
+    // applies (and records, as one undo-able move) all changes in one board update
+    private void applyChanges(Vector<TileChange> changes) {
+        var before = board;
+        board = changes.size() == 1
+                ? before.withUpdatedTile(changes.head().row(), changes.head().col(), changes.head().after())
+                : before.withUpdatedTiles(changes);
+        history.record(before, board, changes);
+        publish(changes);
+    }
+
+    private void publish(Vector<TileChange> changes) {
+        moveSeq++;
+        if (hints != null) {
+            hints.invalidate(changes);
+        }
+        if (deltas.hasSubscribers()) {
+            deltas.publish(BoardDelta.of(moveSeq, changes, board));
+        }
+    }
+
+    /**
+     * Suggests a move: a provably safe covered cell if one can be deduced,
+     * else the one judged least likely to be a mine (empty once no covered
+     * cells remain). Only cells near those changed since the previous hint
+     * are re-analysed, so asking often is cheap.
+     */
+    public Optional<HintService.Hint> hint() {
+        if (hints == null) {
+            hints = new HintService();
+        }
+        return hints.hint(board);
+    }
+
+    /**
+     * Returns a publisher of the tiles changed by each move (including
+     * undos/redos) -- so observers needn't poll the whole board. Delivery
+     * happens off the game thread; subscribers that fall behind receive
+     * coalesced deltas rather than slowing the game down.
+     */
+    public Flow.Publisher<BoardDelta> deltas() {
+        return deltas;
+    }
+
+    /**
+     * Reverts the most recent (not yet undone) move, returning false if
+     * there is nothing left to undo.
+     */
+    public boolean undo() {
+        if (!history.canUndo()) {
+            return false;
+        }
+        var step = history.undo(board);
+        board = step.board();
+        publish(step.changes());
+        return true;
+    }
+
+    /**
+     * Re-applies the most recently undone move, returning false if there
+     * is nothing to redo (any new move clears the redo-able ones).
+     */
+    public boolean redo() {
+        if (!history.canRedo()) {
+            return false;
+        }
+        var step = history.redo(board);
+        board = step.board();
+        publish(step.changes());
+        return true;
     }
 
     public String renderGameState() {
         // queries the board to see how many mines
         var mineCount = board.compute(0, (tile, acc) -> switch (tile) {
             case Mine _ -> acc + 1;
+            case Flagged(var overMine) when overMine -> acc + 1;
             default -> acc;
         });
-        // how many remaining hidden squares?
-        var hiddenCt = board.compute(0, (tile, acc) -> switch (tile) {
-            case Hidden _ -> acc + 1;
-            default -> acc;
-        });
+        // how many remaining hidden squares? (flagged safe ones included)
+        var hiddenCt = board.hiddenCount();
         var boardStr = this.toString();
 
-        return String.format("""
-                %s
-                mine ct: %s
-                hidden ct: %s
-                """.trim(), boardStr, mineCount, hiddenCt);
+        return boardStr + "\nmine ct: " + mineCount + "\nhidden ct: " + hiddenCt;
     }
 
     // just renders the board
@@ -0,0 +1,56 @@
+package edu.psu.ist;
+
+/**
+ * A precomputed, compressed-sparse-row (csr) neighbour table for every cell
+ * of a {@code dim}x{@code dim} board under some {@link Topology}.
+ * <p>
+ * Cells are numbered row-major ({@code row * dim + col}); the neighbours of
+ * cell {@code i} are {@code at(start(i)) .. at(end(i) - 1)}. Iterating them
+ * is a plain array walk -- no coordinate math, bounds checks or allocation
+ * on the hot path.
+ */
+public final class NeighbourTable {
+
+    private final Topology topology;
+    private final int dim;
+    private final int[] offsets;
+    private final int[] neighbours;
+
+    NeighbourTable(Topology topology, int dim, int[] offsets, int[] neighbours) {
+        this.topology = topology;
+        this.dim = dim;
+        this.offsets = offsets;
+        this.neighbours = neighbours;
+    }
+
+    public Topology topology() {
+        return topology;
+    }
+
+    public int dimension() {
+        return dim;
+    }
+
+    public int cellCount() {
+        return dim * dim;
+    }
+
+    /** Index (into {@link #at(int)}) of cell {@code cell}'s first neighbour. */
+    public int start(int cell) {
+        return offsets[cell];
+    }
+
+    /** One past the index of cell {@code cell}'s last neighbour. */
+    public int end(int cell) {
+        return offsets[cell + 1];
+    }
+
+    /** The neighbour cell stored at index {@code i} of the table. */
+    public int at(int i) {
+        return neighbours[i];
+    }
+
+    public int degree(int cell) {
+        return offsets[cell + 1] - offsets[cell];
+    }
+}
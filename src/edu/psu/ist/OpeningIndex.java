@@ -0,0 +1,267 @@
+package edu.psu.ist;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * A precomputed index of a board's <em>openings</em>: the maximal
+ * connected (per the board's {@link Topology}) regions of non-mine cells
+ * with no adjacent mines, together
+ * with the numbered cells bordering them. Revealing any zero cell uncovers
+ * exactly its opening -- so with this index a reveal is a walk over a
+ * precomputed range of cells rather than a flood-fill search.
+ * <p>
+ * Regions are labeled with a union-find over a flat {@code int[]} of cell
+ * indices ({@code row * dim + col}). Large boards are labeled in parallel,
+ * one horizontal stripe of rows per task, after which the labels of
+ * neighbouring stripes are merged along the seams between them (the
+ * {@link Topology#rowReach()} rows either side of each stripe boundary).
+ * Every neighbour lookup walks the board's {@link NeighbourTable}. The
+ * openings are then laid out in compressed (csr) form: the cells of
+ * opening {@code k} are {@code cells[offsets[k] .. offsets[k + 1])}.
+ */
+public final class OpeningIndex {
+
+    /** Boards at least this wide are labeled in parallel stripes. */
+    static final int ParallelThreshold = 256;
+    private static final int MinStripeRows = 32;
+
+    private final int dim;
+    private final byte[] adjacentMines;
+    private final int[] labels;  // opening of each zero cell, else -1
+    private final int[] offsets;
+    private final int[] cells;
+
+    private OpeningIndex(int dim, byte[] adjacentMines, int[] labels, int[] offsets, int[] cells) {
+        this.dim = dim;
+        this.adjacentMines = adjacentMines;
+        this.labels = labels;
+        this.offsets = offsets;
+        this.cells = cells;
+    }
+
+    /** Builds the index for the mines currently on {@code board}. */
+    public static OpeningIndex of(SquareBoard board) {
+        var dim = board.dimension();
+        var mines = new boolean[dim * dim];
+        for (int r = 0; r < dim; r++) {
+            for (int c = 0; c < dim; c++) {
+                mines[r * dim + c] = board.tileAt(r, c).isMine();
+            }
+        }
+        return build(board.neighbours(), mines);
+    }
+
+    /**
+     * Builds the index of a board whose (row-major) mine layout is
+     * {@code mines} and whose cells neighbour one another per {@code table}.
+     */
+    public static OpeningIndex build(NeighbourTable table, boolean[] mines) {
+        var dim = table.dimension();
+        var stripes = dim < ParallelThreshold
+                ? 1
+                : Math.min(Runtime.getRuntime().availableProcessors(), dim / MinStripeRows);
+        return build(table, mines, Math.max(stripes, 1));
+    }
+
+    // package-private so tests can force (any number of) stripes
+    static OpeningIndex build(NeighbourTable table, boolean[] mines, int stripes) {
+        var dim = table.dimension();
+        var n = dim * dim;
+        var counts = new byte[n];
+        var parent = new int[n];
+        var rowsPerStripe = (dim + stripes - 1) / Math.max(stripes, 1);
+        var reach = table.topology().rowReach();
+
+        // phase 1: counts + union-find within each stripe (stripes only
+        // ever touch the parent entries of their own cells)
+        IntStream.range(0, stripes).parallel().forEach(s -> {
+            var from = Math.min(n, s * rowsPerStripe * dim);
+            var to = Math.min(n, from + rowsPerStripe * dim);
+            for (int i = from; i < to; i++) {
+                counts[i] = countMines(table, mines, i);
+                parent[i] = i;
+            }
+            for (int i = from; i < to; i++) {
+                if (isZero(mines, counts, i)) {
+                    unionForward(table, mines, counts, parent, i, from, to);
+                }
+            }
+        });
+
+        // phase 2: merge labels across the seams -- every neighbour pair
+        // split between two stripes lies within reach of a stripe boundary
+        for (int s = 0; s < stripes && stripes > 1; s++) {
+            var r0 = s * rowsPerStripe;
+            var r1 = Math.min(dim, r0 + rowsPerStripe);
+            for (int r = r0; r < r1; r++) {
+                if (r - r0 >= reach && r1 - 1 - r >= reach) {
+                    continue;
+                }
+                for (int i = r * dim; i < (r + 1) * dim; i++) {
+                    if (isZero(mines, counts, i)) {
+                        unionForward(table, mines, counts, parent, i, 0, n);
+                    }
+                }
+            }
+        }
+
+        // phase 3: compact roots into consecutive opening labels
+        var labels = new int[n];
+        Arrays.fill(labels, -1);
+        var rootLabel = new int[n];
+        Arrays.fill(rootLabel, -1);
+        var openings = 0;
+        for (int i = 0; i < n; i++) {
+            if (isZero(mines, counts, i)) {
+                var root = find(parent, i);
+                if (rootLabel[root] < 0) {
+                    rootLabel[root] = openings++;
+                }
+                labels[i] = rootLabel[root];
+            }
+        }
+
+        // phase 4: group zero cells by label (counting sort)...
+        var zeroStart = new int[openings + 1];
+        for (int i = 0; i < n; i++) {
+            if (labels[i] >= 0) {
+                zeroStart[labels[i] + 1]++;
+            }
+        }
+        for (int k = 0; k < openings; k++) {
+            zeroStart[k + 1] += zeroStart[k];
+        }
+        var zeros = new int[zeroStart[openings]];
+        var fill = Arrays.copyOf(zeroStart, openings);
+        for (int i = 0; i < n; i++) {
+            if (labels[i] >= 0) {
+                zeros[fill[labels[i]]++] = i;
+            }
+        }
+
+        // ...then lay out each opening: its zero cells + (deduped) border
+        var stamp = new int[n];
+        Arrays.fill(stamp, -1);
+        var offsets = new int[openings + 1];
+        for (int k = 0; k < openings; k++) {
+            offsets[k + 1] = offsets[k] + openingSize(table, mines, labels, zeros,
+                    zeroStart[k], zeroStart[k + 1], k, stamp, null, 0);
+        }
+        Arrays.fill(stamp, -1);
+        var cells = new int[offsets[openings]];
+        for (int k = 0; k < openings; k++) {
+            openingSize(table, mines, labels, zeros,
+                    zeroStart[k], zeroStart[k + 1], k, stamp, cells, offsets[k]);
+        }
+        return new OpeningIndex(dim, counts, labels, offsets, cells);
+    }
+
+    /**
+     * Counts (and, if {@code out} isn't null, writes from {@code at}) the
+     * cells of opening {@code k}: zero cells first, then border cells.
+     */
+    private static int openingSize(NeighbourTable table, boolean[] mines, int[] labels, int[] zeros,
+                                   int from, int to, int k, int[] stamp, int[] out, int at) {
+        var size = 0;
+        for (int z = from; z < to; z++) {
+            if (out != null) {
+                out[at + size] = zeros[z];
+            }
+            stamp[zeros[z]] = k;
+            size++;
+        }
+        for (int z = from; z < to; z++) {
+            for (int j = table.start(zeros[z]); j < table.end(zeros[z]); j++) {
+                var nb = table.at(j);
+                if (stamp[nb] != k && !mines[nb] && labels[nb] < 0) {
+                    stamp[nb] = k;
+                    if (out != null) {
+                        out[at + size] = nb;
+                    }
+                    size++;
+                }
+            }
+        }
+        return size;
+    }
+
+    // unions zero cell i with its zero neighbours j > i (with from <= j < to)
+    // -- neighbourhoods are symmetric, so that sees every edge exactly once
+    private static void unionForward(NeighbourTable table, boolean[] mines, byte[] counts,
+                                     int[] parent, int i, int from, int to) {
+        for (int k = table.start(i); k < table.end(i); k++) {
+            var j = table.at(k);
+            if (j > i && j >= from && j < to && isZero(mines, counts, j)) {
+                union(parent, i, j);
+            }
+        }
+    }
+
+    private static boolean isZero(boolean[] mines, byte[] counts, int i) {
+        return !mines[i] && counts[i] == 0;
+    }
+
+    private static byte countMines(NeighbourTable table, boolean[] mines, int i) {
+        byte ct = 0;
+        for (int k = table.start(i); k < table.end(i); k++) {
+            if (mines[table.at(k)]) {
+                ct++;
+            }
+        }
+        return ct;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]]; // path halving
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        var ra = find(parent, a);
+        var rb = find(parent, b);
+        if (ra != rb) { // smaller index becomes the root (keeps labels deterministic)
+            parent[Math.max(ra, rb)] = Math.min(ra, rb);
+        }
+    }
+
+    public int dimension() {
+        return dim;
+    }
+
+    public int openingCount() {
+        return offsets.length - 1;
+    }
+
+    /** Returns the number of mines adjacent to {@code row,col}. */
+    public int adjacentMines(int row, int col) {
+        return adjacentMines[row * dim + col];
+    }
+
+    /**
+     * Returns the label of the opening whose zero region contains
+     * {@code row,col}, or -1 if that cell isn't a zero cell.
+     */
+    public int openingAt(int row, int col) {
+        return labels[row * dim + col];
+    }
+
+    /** Returns the number of cells (zeros plus border) in opening {@code k}. */
+    public int openingSize(int k) {
+        return offsets[k + 1] - offsets[k];
+    }
+
+    /**
+     * Calls {@code f} with the cell index ({@code row * dim + col}) of every
+     * cell of opening {@code k}.
+     */
+    public void forEachCell(int k, IntConsumer f) {
+        for (int i = offsets[k]; i < offsets[k + 1]; i++) {
+            f.accept(cells[i]);
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package edu.psu.ist;
 
 import edu.psu.ist.immutableadts.Result;
+import edu.psu.ist.jfr.BoardComputeEvent;
+import edu.psu.ist.jfr.BoardUpdateEvent;
+import edu.psu.ist.jfr.Jfr;
 import io.vavr.collection.Vector;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.function.BiFunction;
 
 /**
@@ -15,19 +20,82 @@ public final class SquareBoard {
 
     private final Vector<Row> rows;
 
+    /**
+     * The 64-bit Zobrist hash of the tiles on this board: the xor of one
+     * (pseudo-random) key per (cell, tile) pair -- see {@link #zobristKey}.
+     * Updates maintain it incrementally by xor-ing out the old tile's key and
+     * xor-ing in the new one.
+     */
+    private final long zobrist;
+
+    /** How this board's cells neighbour one another (square by default). */
+    private final Topology topology;
+
+    /** The topology's table for this board's size (held here: see {@link Topology}). */
+    private final NeighbourTable table;
+
+    /**
+     * The openings of this board's mine layout (shared by every board derived
+     * from this one that has the same mines). Null when an update moved a
+     * mine -- it's then rebuilt on first use by {@link #openings()}.
+     */
+    private OpeningIndex openings;
+
+    /**
+     * How many safe cells are still to be uncovered (hidden, or flagged
+     * though not a mine) -- maintained by updates like {@link #zobrist},
+     * so checking for a win needn't fold over the whole board.
+     */
+    private final int hiddenCount;
+
     // private to enforce that only a validated board can exist
-    private SquareBoard(Vector<Row> rows) {
+    private SquareBoard(Vector<Row> rows, long zobrist, Topology topology, OpeningIndex openings,
+                        int hiddenCount) {
         this.rows = rows;
+        this.zobrist = zobrist;
+        this.topology = topology;
+        this.table = topology.table(rows.size());
+        this.openings = openings;
+        this.hiddenCount = hiddenCount;
     }
 
     public int dimension() {
         return rows.size();
     }
 
+    public Topology topology() {
+        return topology;
+    }
+
+    /**
+     * Returns the (shared) table of each cell's neighbours under this
+     * board's {@link Topology}.
+     */
+    public NeighbourTable neighbours() {
+        return table;
+    }
+
     public TileType tileAt(int row, int col) {
         return rows.get(row).get(col);
     }
 
+    /**
+     * Returns the number of safe cells not yet uncovered (0 once the game
+     * on this board is won), in O(1).
+     */
+    public int hiddenCount() {
+        return hiddenCount;
+    }
+
+    // a tile's contribution to hiddenCount
+    private static int hiddenWeight(TileType tile) {
+        return switch (tile) {
+            case TileType.Hidden _ -> 1;
+            case TileType.Flagged(var overMine) when !overMine -> 1;
+            default -> 0;
+        };
+    }
+
     /**
      * Returns a new board with {@code row,col} updated to the provided
      * {@code tile} type.
@@ -37,8 +105,138 @@ public final class SquareBoard {
      *          positive number
      */
     public SquareBoard withUpdatedTile(int row, int col, TileType tile) {
-        var updatedRow = rows.get(row).update(col, tile);
-        return new SquareBoard(rows.update(row, updatedRow));
+        if (!Jfr.isActive()) {
+            return updateTile(row, col, tile);
+        }
+        var evt = new BoardUpdateEvent();
+        evt.begin();
+        var result = updateTile(row, col, tile);
+        evt.end();
+        if (evt.shouldCommit()) {
+            evt.dimension = dimension();
+            evt.cellsTouched = 1;
+            evt.commit();
+        }
+        return result;
+    }
+
+    private SquareBoard updateTile(int row, int col, TileType tile) {
+        var oldRow = rows.get(row);
+        var hash = zobrist
+                ^ zobristKey(row, col, oldRow.get(col))
+                ^ zobristKey(row, col, tile);
+        var sameMines = oldRow.get(col).isMine() == tile.isMine();
+        return new SquareBoard(rows.update(row, oldRow.update(col, tile)), hash,
+                topology, sameMines ? openings : null,
+                hiddenCount - hiddenWeight(oldRow.get(col)) + hiddenWeight(tile));
+    }
+
+    /**
+     * Returns a new board with every {@link TileChange#after()} tile of
+     * {@code changes} applied (in order, so later changes to the same cell
+     * win). Unlike repeated {@link #withUpdatedTile} calls, each affected
+     * row is written back into the board once and only one new board is
+     * produced.
+     * <p>
+     * precondition: every change is in bounds (see {@link #withUpdatedTile})
+     */
+    public SquareBoard withUpdatedTiles(Iterable<TileChange> changes) {
+        if (!Jfr.isActive()) {
+            return updateTiles(changes);
+        }
+        var evt = new BoardUpdateEvent();
+        evt.begin();
+        var result = updateTiles(changes);
+        evt.end();
+        if (evt.shouldCommit()) {
+            var touched = 0;
+            for (var _ : changes) {
+                touched++;
+            }
+            evt.dimension = dimension();
+            evt.cellsTouched = touched;
+            evt.commit();
+        }
+        return result;
+    }
+
+    private SquareBoard updateTiles(Iterable<TileChange> changes) {
+        var staged = new HashMap<Integer, Row>();
+        var hash = zobrist;
+        var hidden = hiddenCount;
+        var sameMines = true;
+        for (var c : changes) {
+            var row = staged.computeIfAbsent(c.row(), rows::get);
+            hash ^= zobristKey(c.row(), c.col(), row.get(c.col()))
+                    ^ zobristKey(c.row(), c.col(), c.after());
+            hidden += hiddenWeight(c.after()) - hiddenWeight(row.get(c.col()));
+            sameMines &= row.get(c.col()).isMine() == c.after().isMine();
+            staged.put(c.row(), row.update(c.col(), c.after()));
+        }
+        var updatedRows = rows;
+        for (var e : staged.entrySet()) {
+            updatedRows = updatedRows.update(e.getKey(), e.getValue());
+        }
+        return new SquareBoard(updatedRows, hash, topology, sameMines ? openings : null, hidden);
+    }
+
+    /**
+     * Returns the {@link OpeningIndex} of this board's current mine layout.
+     * Built by the {@link ValidatingBoardBuilder}; boards derived via updates
+     * that don't move mines share it.
+     */
+    public OpeningIndex openings() {
+        var idx = openings;
+        if (idx == null) { // (benign race: rebuilding yields an equal index)
+            idx = OpeningIndex.of(this);
+            openings = idx;
+        }
+        return idx;
+    }
+
+    /**
+     * Returns the changes that take this board to {@code later} (a board of
+     * the same dimension), in row-major order. Rows the two share -- as
+     * boards derived from one another by updates mostly do -- are skipped
+     * without comparing their tiles.
+     */
+    public Vector<TileChange> changesTo(SquareBoard later) {
+        if (later.dimension() != dimension()) {
+            throw new IllegalArgumentException("boards differ in dimension");
+        }
+        var changes = new ArrayList<TileChange>();
+        for (int r = 0; r < rows.length(); r++) {
+            var before = rows.get(r);
+            var after = later.rows.get(r);
+            if (before == after) {
+                continue;
+            }
+            for (int c = 0; c < before.length(); c++) {
+                if (!before.get(c).equals(after.get(c))) {
+                    changes.add(new TileChange(r, c, before.get(c), after.get(c)));
+                }
+            }
+        }
+        return Vector.ofAll(changes);
+    }
+
+    /** Returns the 64-bit Zobrist hash of this board's tiles. */
+    public long zobristHash() {
+        return zobrist;
+    }
+
+    /**
+     * The Zobrist key for {@code tile} sitting at {@code row,col}. Rather
+     * than a (dimension-dependent) table of random keys, keys are derived by
+     * running the packed (cell, full 32-bit tile code) triple through the
+     * splitmix64 finalizer -- a bijection, so (on any board under 2^16 tiles
+     * a side, far more than fits in memory) distinct pairs never share a key.
+     */
+    static long zobristKey(int row, int col, TileType tile) {
+        var z = ((long) row << 48) ^ ((long) col << 32) ^ (tile.code() & 0xffffffffL);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
     }
 
     /**
@@ -56,9 +254,25 @@ public final class SquareBoard {
      * method generalizes/subsumes them all.
      */
     public <A> A compute(A start, BiFunction<TileType, A, A> f) {
+        if (!Jfr.isActive()) {
+            return fold(start, f);
+        }
+        var evt = new BoardComputeEvent();
+        evt.begin();
+        var result = fold(start, f);
+        evt.end();
+        if (evt.shouldCommit()) {
+            evt.dimension = dimension();
+            evt.cellsTouched = dimension() * dimension();
+            evt.commit();
+        }
+        return result;
+    }
+
+    private <A> A fold(A start, BiFunction<TileType, A, A> f) {
         return rows.foldLeft(start, (a, row) ->
-                        row.columns().foldLeft(a,
-                                (a1, tile) -> f.apply(tile, a1)));
+                row.columns().foldLeft(a,
+                        (a1, tile) -> f.apply(tile, a1)));
         //alternative (far more familiar) imperative way:
         //var result = start;
         //for (var row : rows) {
@@ -69,10 +283,51 @@ public final class SquareBoard {
         //return result;
     }
 
+    /**
+     * Two boards are equal if they have the same tiles in the same places
+     * (and the same topology).
+     * Boards with different Zobrist hashes are rejected in O(1); only on a
+     * hash match are the rows themselves compared.
+     */
+    @Override public boolean equals(Object o) {
+        return o instanceof SquareBoard other
+                && zobrist == other.zobrist
+                && topology == other.topology
+                && (rows == other.rows || rows.equals(other.rows));
+    }
+
+    @Override public int hashCode() {
+        return Long.hashCode(zobrist);
+    }
+
     @Override public String toString() {
         return rows.mkString("\n");
     }
 
+    /**
+     * Builds a board straight from {@code tiles} ({@code dim*dim} of them,
+     * row-major) without the {@link ValidatingBoardBuilder}'s checks -- for
+     * callers whose tiles are well-formed by construction, such as archive
+     * decoders. Its {@link OpeningIndex} is only built on the first call to
+     * {@link #openings()}, so boards that are just looked at never pay for one.
+     */
+    public static SquareBoard ofTrustedTiles(Topology topology, int dim, TileType[] tiles) {
+        if (tiles.length != dim * dim) {
+            throw new IllegalArgumentException("expected " + dim * dim + " tiles, got " + tiles.length);
+        }
+        var rows = Vector.<Row>empty();
+        var hash = 0L;
+        var hidden = 0;
+        for (int r = 0; r < dim; r++) {
+            for (int c = 0; c < dim; c++) {
+                hash ^= zobristKey(r, c, tiles[r * dim + c]);
+                hidden += hiddenWeight(tiles[r * dim + c]);
+            }
+            rows = rows.append(new Row(r, Vector.of(Arrays.copyOfRange(tiles, r * dim, (r + 1) * dim))));
+        }
+        return new SquareBoard(rows, hash, topology, null, hidden);
+    }
+
     /**
      * A builder class constructing only valid {@link SquareBoard} objects.
      * i.e.: use {@link #build()} to obtain a validated SquareBoard
@@ -91,6 +346,14 @@ public final class SquareBoard {
          */
         private final ArrayList<Vector<Result<TileType, String>>> mutRows = new ArrayList<>();
 
+        private Topology topology = Topology.Square;
+
+        /** Sets the topology of the board being built (default: square). */
+        public ValidatingBoardBuilder topology(Topology topology) {
+            this.topology = topology;
+            return this;
+        }
+
         // nb: TileType... tpes is "syntactic sugar" for an array of
         // TileTypes: TileType[]
         public ValidatingBoardBuilder row(TileType... tpes) {
@@ -165,7 +428,18 @@ public final class SquareBoard {
             if (!accumulatedErrs.isEmpty()) {
                 return Result.err(accumulatedErrs.mkString("\n"));
             } else {
-                return Result.ok(new SquareBoard(rows));
+                var hash = 0L;
+                var hidden = 0;
+                var mines = new boolean[n * n];
+                for (var row : rows) {
+                    for (int col = 0; col < row.length(); col++) {
+                        hash ^= zobristKey(row.rowNum(), col, row.get(col));
+                        hidden += hiddenWeight(row.get(col));
+                        mines[row.rowNum() * n + col] = row.get(col).isMine();
+                    }
+                }
+                return Result.ok(new SquareBoard(rows, hash, topology,
+                        OpeningIndex.build(topology.table(n), mines), hidden));
             }
         }
 
@@ -180,6 +454,8 @@ public final class SquareBoard {
             return switch (s) {
                 case "_" -> Result.ok(TileType.hidden());
                 case "*" -> Result.ok(TileType.mine());
+                case "F" -> Result.ok(TileType.flagged(false));
+                case "!" -> Result.ok(TileType.flagged(true));
                 case String str when isInt(str) -> Result.ok(new TileType.Uncovered(Integer.parseInt(str)));
                 default -> Result.err("unrecognized cell: " + s);
             };
@@ -0,0 +1,13 @@
+package edu.psu.ist;
+
+/**
+ * Records that the tile at {@code row,col} went from {@code before} to
+ * {@code after} as part of some move.
+ */
+public record TileChange(int row, int col, TileType before, TileType after) {
+
+    /** Returns the change that reverts this one. */
+    public TileChange inverse() {
+        return new TileChange(row, col, after, before);
+    }
+}
@@ -1,12 +1,15 @@
 package edu.psu.ist;
 
 /**
- * Represents the tile type with three possibilities:
+ * Represents the tile type with four possibilities:
  * <ul>
  *     <li>{@link Uncovered}</li> denotes a selected tile showing the number of
  *      adjacent mines (including diagonal)
  *     <li>{@link Hidden} denotes the unrevealed tile (a singleton)</li>
  *     <li>{@link Mine} denotes the mined/trapped tile (a singleton)</li>
+ *     <li>{@link Flagged} denotes an unrevealed tile the player has flagged;
+ *     it remembers whether there's a mine underneath (so unflagging restores
+ *     the original tile)</li>
  * </ul>
  */
 public sealed interface TileType {
@@ -14,22 +17,51 @@ public sealed interface TileType {
     enum Mine                   implements TileType {MineInst}
     enum Hidden                 implements TileType {HiddenInst}
     record Uncovered(int count) implements TileType {}
+    record Flagged(boolean overMine) implements TileType {}
 
     static Mine mine() { return Mine.MineInst; }
     static Hidden hidden() { return Hidden.HiddenInst; }
     static TileType un(int count) { return new Uncovered(count); }
+    static Flagged flagged(boolean overMine) { return new Flagged(overMine); }
 
     default boolean isMine() {
         return switch (this) {
             case Mine _ -> true;
+            case Flagged(var overMine) -> overMine;
             default     -> false;
         };
     }
 
+    /**
+     * Returns a compact integer code for this tile: the count of an
+     * {@link Uncovered} tile (always >= 0), or a (distinct) negative
+     * number for each of the other tiles. See {@link #ofCode(int)}.
+     */
+    default int code() {
+        return switch (this) {
+            case Mine _ -> -1;
+            case Hidden _ -> -2;
+            case Flagged(var overMine) -> overMine ? -4 : -3;
+            case Uncovered(var c) -> c;
+        };
+    }
+
+    /** The inverse of {@link #code()}. */
+    static TileType ofCode(int code) {
+        return switch (code) {
+            case -1 -> mine();
+            case -2 -> hidden();
+            case -3 -> flagged(false);
+            case -4 -> flagged(true);
+            default -> un(code);
+        };
+    }
+
     default String cellAsString() {
         return switch (this) {
             case Mine.MineInst      -> "*";
             case Hidden.HiddenInst  -> "_";
+            case Flagged(var m)     -> m ? "!" : "F";
             case Uncovered(var c)   -> c + "";
         };
     }
@@ -0,0 +1,104 @@
+package edu.psu.ist;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * How the cells of a board connect to one another -- i.e., which cells count
+ * as "adjacent" for mine counting, openings and solving.
+ * <ul>
+ *     <li>{@link #Square}: the classic 8 surrounding cells</li>
+ *     <li>{@link #Toroidal}: like square, but the edges wrap around</li>
+ *     <li>{@link #Hexagonal}: 6 neighbours, rows offset "odd-r" style (odd
+ *     rows shifted half a cell to the right)</li>
+ *     <li>{@link #Knight}: the (up to 8) cells a chess knight could jump to</li>
+ * </ul>
+ * Each topology's {@link NeighbourTable} is built once per board dimension
+ * and shared by every board of that size. Boards hold on to their table;
+ * the cache only holds tables softly, so those of sizes no longer played
+ * can be reclaimed (and are rebuilt if needed again).
+ */
+public enum Topology {
+
+    Square, Toroidal, Hexagonal, Knight;
+
+    private static final int[][] SquareOffsets = {
+            {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+    private static final int[][] HexEvenRowOffsets = {
+            {-1, -1}, {-1, 0}, {0, -1}, {0, 1}, {1, -1}, {1, 0}};
+    private static final int[][] HexOddRowOffsets = {
+            {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, 0}, {1, 1}};
+    private static final int[][] KnightOffsets = {
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+
+    private static final ConcurrentHashMap<Long, SoftReference<NeighbourTable>> Tables = new ConcurrentHashMap<>();
+
+    /**
+     * The largest row distance between two (non-wrapping) neighbours --
+     * e.g. 2 for a knight's move.
+     */
+    public int rowReach() {
+        return this == Knight ? 2 : 1;
+    }
+
+    /** Returns the (shared, cached) neighbour table for {@code dim}x{@code dim} boards. */
+    public NeighbourTable table(int dim) {
+        var key = ((long) ordinal() << 32) | dim;
+        var ref = Tables.get(key);
+        var table = ref == null ? null : ref.get();
+        if (table == null) { // (benign race: rebuilding yields an equal table)
+            table = buildTable(dim);
+            Tables.put(key, new SoftReference<>(table));
+            Tables.values().removeIf(r -> r.get() == null); // forget reclaimed sizes
+        }
+        return table;
+    }
+
+    private NeighbourTable buildTable(int dim) {
+        var n = dim * dim;
+        var offsets = new int[n + 1];
+        var neighbours = new int[n * 8];
+        var scratch = new int[8];
+        var size = 0;
+        for (int cell = 0; cell < n; cell++) {
+            var r = cell / dim;
+            var c = cell % dim;
+            var deltas = switch (this) {
+                case Square, Toroidal -> SquareOffsets;
+                case Hexagonal -> (r % 2 == 0) ? HexEvenRowOffsets : HexOddRowOffsets;
+                case Knight -> KnightOffsets;
+            };
+            var found = 0;
+            for (var d : deltas) {
+                var nr = r + d[0];
+                var nc = c + d[1];
+                if (this == Toroidal) {
+                    nr = Math.floorMod(nr, dim);
+                    nc = Math.floorMod(nc, dim);
+                } else if (nr < 0 || nc < 0 || nr >= dim || nc >= dim) {
+                    continue;
+                }
+                var nb = nr * dim + nc;
+                // tiny tori wrap onto themselves/repeat cells: keep each once
+                if (nb != cell && !contains(scratch, found, nb)) {
+                    scratch[found++] = nb;
+                }
+            }
+            Arrays.sort(scratch, 0, found);
+            System.arraycopy(scratch, 0, neighbours, size, found);
+            size += found;
+            offsets[cell + 1] = size;
+        }
+        return new NeighbourTable(this, dim, offsets, Arrays.copyOf(neighbours, size));
+    }
+
+    private static boolean contains(int[] xs, int len, int x) {
+        for (int i = 0; i < len; i++) {
+            if (xs[i] == x) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,125 @@
+package edu.psu.ist.archive;
+
+import edu.psu.ist.SquareBoard;
+import edu.psu.ist.immutableadts.Result;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Random access to the boards of an archive (see {@link ArchiveWriter}).
+ * <p>
+ * Opening maps just the archive's index into memory; fetching board
+ * {@code id} then costs one index lookup plus one positional read of that
+ * board's record -- no matter how many boards the archive holds. Reads
+ * don't share a file position, so a reader may be used from many threads.
+ * To visit every board in order, an {@link ArchiveStream} is cheaper.
+ */
+public final class ArchiveReader implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final LongBuffer index;
+    private final long indexOffset;
+
+    private ArchiveReader(FileChannel channel, LongBuffer index, long indexOffset) {
+        this.channel = channel;
+        this.index = index;
+        this.indexOffset = indexOffset;
+    }
+
+    /** Opens archive {@code file}, returning an error if it's not a (complete) archive. */
+    public static Result<ArchiveReader, String> open(Path file) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            switch (footer(channel)) {
+                case Result.Ok(var f) -> {
+                    var mapped = channel.map(FileChannel.MapMode.READ_ONLY, f[0], f[1] * Long.BYTES);
+                    return Result.ok(new ArchiveReader(channel, mapped.asLongBuffer(), f[0]));
+                }
+                case Result.Err(var msg) -> {
+                    closeQuietly(channel);
+                    return Result.err(msg);
+                }
+            }
+        } catch (IOException e) {
+            closeQuietly(channel); // (reading the footer or mapping failed: don't leak the channel)
+            return Result.err(e.getMessage());
+        }
+    }
+
+    static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // nothing more to do: the open already failed
+        }
+    }
+
+    /**
+     * Validates the header and footer of an archive, returning its
+     * {@code {index offset, board count}}.
+     */
+    static Result<long[], String> footer(FileChannel channel) throws IOException {
+        var size = channel.size();
+        if (size < ArchiveWriter.HeaderBytes + ArchiveWriter.FooterBytes) {
+            return Result.err("not a board archive (too short)");
+        }
+        var header = ByteBuffer.allocate(ArchiveWriter.HeaderBytes);
+        channel.read(header, 0);
+        var footer = ByteBuffer.allocate(ArchiveWriter.FooterBytes);
+        channel.read(footer, size - ArchiveWriter.FooterBytes);
+        header.flip();
+        footer.flip();
+        if (header.getInt() != ArchiveWriter.Magic || header.getInt() != ArchiveWriter.Version) {
+            return Result.err("not a board archive (bad header)");
+        }
+        var indexOffset = footer.getLong();
+        var count = footer.getLong();
+        if (footer.getInt() != ArchiveWriter.IndexMagic
+                || count < 0 || count > Integer.MAX_VALUE / Long.BYTES
+                || indexOffset + count * Long.BYTES != size - ArchiveWriter.FooterBytes) {
+            return Result.err("not a board archive (bad or missing index)");
+        }
+        return Result.ok(new long[]{indexOffset, count});
+    }
+
+    /** Returns the number of boards in the archive. */
+    public int size() {
+        return index.capacity();
+    }
+
+    /** Returns board {@code id} (0 <= id < {@link #size()}). */
+    public Result<SquareBoard, String> board(int id) {
+        if (id < 0 || id >= size()) {
+            return Result.err("no board " + id + " in archive of " + size());
+        }
+        var start = index.get(id);
+        var end = id + 1 < size() ? index.get(id + 1) : indexOffset;
+        if (start < ArchiveWriter.HeaderBytes || end < start || end - start > Integer.MAX_VALUE) {
+            return Result.err("corrupt index entry for board " + id);
+        }
+        try {
+            var buf = ByteBuffer.allocate((int) (end - start));
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, start + buf.position()) < 0) {
+                    return Result.err("truncated archive");
+                }
+            }
+            return BoardCodec.decode(buf.flip());
+        } catch (IOException e) {
+            return Result.err(e.getMessage());
+        }
+    }
+
+    @Override public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,92 @@
+package edu.psu.ist.archive;
+
+import edu.psu.ist.SquareBoard;
+import edu.psu.ist.immutableadts.Result;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates the boards of an archive in order, reading it front to back
+ * through a small buffer -- memory use doesn't depend on the archive's
+ * size and the index is never loaded.
+ * <p>
+ * A board that fails to decode comes back as a {@link Result.Err}; an i/o
+ * failure ends the iteration (with an error as its last element).
+ */
+public final class ArchiveStream implements Iterator<Result<SquareBoard, String>>, AutoCloseable {
+
+    private final DataInputStream in;
+    private final long count;
+    private long read = 0;
+    private boolean failed = false;
+
+    private ArchiveStream(DataInputStream in, long count) {
+        this.in = in;
+        this.count = count;
+    }
+
+    public static Result<ArchiveStream, String> open(Path file) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            return switch (ArchiveReader.footer(channel)) {
+                case Result.Ok(var f) -> {
+                    channel.position(ArchiveWriter.HeaderBytes);
+                    var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+                    yield Result.ok(new ArchiveStream(in, f[1]));
+                }
+                case Result.Err(var msg) -> {
+                    ArchiveReader.closeQuietly(channel);
+                    yield Result.err(msg);
+                }
+            };
+        } catch (IOException e) {
+            ArchiveReader.closeQuietly(channel); // (reading the footer or seeking failed)
+            return Result.err(e.getMessage());
+        }
+    }
+
+    /** Returns the number of boards in the archive. */
+    public long count() {
+        return count;
+    }
+
+    @Override public boolean hasNext() {
+        return !failed && read < count;
+    }
+
+    @Override public Result<SquareBoard, String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        read++;
+        try {
+            var header = in.readUnsignedByte();
+            var topology = in.readUnsignedByte();
+            var dim = BoardCodec.readVarint(in);
+            var length = BoardCodec.readVarint(in);
+            if (dim < 0 || dim > BoardCodec.MaxDimension || length < 0 || length > BoardCodec.maxPayload(dim)) {
+                failed = true;
+                return Result.err("corrupt board record");
+            }
+            var payload = new byte[length];
+            in.readFully(payload);
+            return BoardCodec.decode(header, topology, dim, payload);
+        } catch (IOException e) {
+            failed = true;
+            return Result.err("truncated archive: " + e.getMessage());
+        }
+    }
+
+    @Override public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,91 @@
+package edu.psu.ist.archive;
+
+import edu.psu.ist.SquareBoard;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Writes a board archive: many boards in one file, each as a compact
+ * {@link BoardCodec} record, followed by an index of record offsets.
+ * <pre>
+ *     int     Magic ("SWPA"), int Version
+ *     record * count
+ *     long * count        index: the file offset of each record
+ *     long    index offset
+ *     long    count
+ *     int     IndexMagic ("SWPI")
+ * </pre>
+ * Since the index (and the footer locating it) is written last, boards
+ * can be appended in a single streaming pass; the archive is only
+ * readable once {@link #close() closed}.
+ */
+public final class ArchiveWriter implements AutoCloseable {
+
+    static final int Magic = 0x53575041;      // "SWPA"
+    static final int IndexMagic = 0x53575049; // "SWPI"
+    static final int Version = 1;
+    static final int HeaderBytes = 2 * Integer.BYTES;
+    static final int FooterBytes = 2 * Long.BYTES + Integer.BYTES;
+
+    private final DataOutputStream out;
+    private final boolean rle;
+    private long position;
+    private long[] offsets = new long[1024];
+    private int count = 0;
+
+    private ArchiveWriter(DataOutputStream out, boolean rle) {
+        this.out = out;
+        this.rle = rle;
+    }
+
+    /**
+     * Creates (or truncates) the archive {@code file}; with {@code rle},
+     * each board is run-length encoded whenever that makes it smaller.
+     */
+    public static ArchiveWriter create(Path file, boolean rle) throws IOException {
+        var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        out.writeInt(Magic);
+        out.writeInt(Version);
+        var w = new ArchiveWriter(out, rle);
+        w.position = HeaderBytes;
+        return w;
+    }
+
+    /** Appends {@code board}, returning its id (its position in the archive). */
+    public int append(SquareBoard board) throws IOException {
+        if (board.dimension() > BoardCodec.MaxDimension) {
+            throw new IllegalArgumentException("board too wide to archive: " + board.dimension());
+        }
+        var record = BoardCodec.encode(board, rle);
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        offsets[count] = position;
+        out.write(record);
+        position += record.length;
+        return count++;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    @Override public void close() throws IOException {
+        var indexOffset = position;
+        try {
+            for (int i = 0; i < count; i++) {
+                out.writeLong(offsets[i]);
+            }
+            out.writeLong(indexOffset);
+            out.writeLong(count);
+            out.writeInt(IndexMagic);
+        } finally {
+            out.close();
+        }
+    }
+}
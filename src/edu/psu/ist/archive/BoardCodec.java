@@ -0,0 +1,242 @@
+package edu.psu.ist.archive;
+
+import edu.psu.ist.SquareBoard;
+import edu.psu.ist.TileType;
+import edu.psu.ist.Topology;
+import edu.psu.ist.immutableadts.Result;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import static edu.psu.ist.TileType.*;
+
+/**
+ * Encodes a single board as an archive record:
+ * <pre>
+ *     byte    flags        (HasRevealed | HasFlags | Rle)
+ *     byte    topology     (its ordinal)
+ *     varint  dim
+ *     varint  payload length
+ *     payload              the planes, raw or run-length encoded
+ * </pre>
+ * The payload is up to three bit planes of {@code dim * dim} bits each
+ * (row-major, least significant bit first): mines, then -- only if any
+ * cell is in that state -- revealed and flagged. Uncovered counts aren't
+ * stored; they're recomputed from the mine plane on decoding (so, as with
+ * scoring, a board's uncovered counts are taken to agree with its mines).
+ * <p>
+ * A run-length encoded payload is a list of varint run lengths over the
+ * concatenated plane bits, alternating between runs of 0s and 1s (starting
+ * with 0s). It's only used when it comes out smaller than the raw planes.
+ */
+final class BoardCodec {
+
+    static final int HasRevealed = 1;
+    static final int HasFlags = 2;
+    static final int Rle = 4;
+
+    /** The widest board a record may hold (keeps {@code dim * dim * 3} bits in an int). */
+    static final int MaxDimension = 1 << 14;
+
+    private BoardCodec() {}
+
+    static byte[] encode(SquareBoard board, boolean allowRle) {
+        var dim = board.dimension();
+        var n = dim * dim;
+        var mines = new byte[(n + 7) / 8];
+        var revealed = new byte[mines.length];
+        var flags = new byte[mines.length];
+        var anyRevealed = false;
+        var anyFlags = false;
+        for (int i = 0; i < n; i++) {
+            var tile = board.tileAt(i / dim, i % dim);
+            if (tile.isMine()) {
+                set(mines, i);
+            }
+            switch (tile) {
+                case Uncovered _ -> {
+                    set(revealed, i);
+                    anyRevealed = true;
+                }
+                case Flagged _ -> {
+                    set(flags, i);
+                    anyFlags = true;
+                }
+                default -> { }
+            }
+        }
+        var header = (anyRevealed ? HasRevealed : 0) | (anyFlags ? HasFlags : 0);
+        var planes = new ByteArrayOutputStream();
+        planes.writeBytes(mines);
+        if (anyRevealed) {
+            planes.writeBytes(revealed);
+        }
+        if (anyFlags) {
+            planes.writeBytes(flags);
+        }
+        var payload = planes.toByteArray();
+        if (allowRle) {
+            var rle = runLengths(payload);
+            if (rle.length < payload.length) {
+                payload = rle;
+                header |= Rle;
+            }
+        }
+        var out = new ByteArrayOutputStream(payload.length + 12);
+        out.write(header);
+        out.write(board.topology().ordinal());
+        writeVarint(out, dim);
+        writeVarint(out, payload.length);
+        out.writeBytes(payload);
+        return out.toByteArray();
+    }
+
+    /** Decodes the record starting at {@code buf}'s position (advancing past it). */
+    static Result<SquareBoard, String> decode(ByteBuffer buf) {
+        if (buf.remaining() < 2) {
+            return Result.err("truncated board record");
+        }
+        var header = buf.get() & 0xff;
+        var topologyOrd = buf.get() & 0xff;
+        var dim = readVarint(buf);
+        var length = readVarint(buf);
+        if (length < 0 || length > buf.remaining()) {
+            return Result.err("truncated board record");
+        }
+        var payload = new byte[length];
+        buf.get(payload);
+        return decode(header, topologyOrd, dim, payload);
+    }
+
+    /**
+     * The longest payload a {@code dim}-wide record can have: all three
+     * planes, raw (a run-length encoding is only kept when shorter).
+     */
+    static long maxPayload(int dim) {
+        return 3L * (((long) dim * dim + 7) / 8);
+    }
+
+    /** Decodes a record whose fields have already been read. */
+    static Result<SquareBoard, String> decode(int header, int topologyOrd, int dim, byte[] payload) {
+        if (topologyOrd >= Topology.values().length || dim < 0 || dim > MaxDimension) {
+            return Result.err("corrupt board record");
+        }
+        var topology = Topology.values()[topologyOrd];
+        var n = dim * dim;
+        var planeBytes = (n + 7) / 8;
+        var planeCount = 1 + ((header & HasRevealed) != 0 ? 1 : 0) + ((header & HasFlags) != 0 ? 1 : 0);
+        var planes = (header & Rle) != 0 ? expandRuns(payload, planeCount * planeBytes) : payload;
+        if (planes == null || planes.length < planeCount * planeBytes) {
+            return Result.err("corrupt board planes");
+        }
+        var revealedAt = (header & HasRevealed) != 0 ? planeBytes : -1;
+        var flagsAt = (header & HasFlags) != 0 ? planeBytes * (revealedAt < 0 ? 1 : 2) : -1;
+
+        var table = topology.table(dim);
+        var tiles = new TileType[n];
+        for (int i = 0; i < n; i++) {
+            var mine = get(planes, 0, i);
+            if (flagsAt >= 0 && get(planes, flagsAt, i)) {
+                tiles[i] = flagged(mine);
+            } else if (mine) {
+                tiles[i] = mine();
+            } else if (revealedAt >= 0 && get(planes, revealedAt, i)) {
+                var count = 0;
+                for (int k = table.start(i); k < table.end(i); k++) {
+                    count += get(planes, 0, table.at(k)) ? 1 : 0;
+                }
+                tiles[i] = un(count);
+            } else {
+                tiles[i] = hidden();
+            }
+        }
+        // (every tile above is well-formed: no need to validate them again)
+        return Result.ok(SquareBoard.ofTrustedTiles(topology, dim, tiles));
+    }
+
+    private static void set(byte[] plane, int i) {
+        plane[i >>> 3] |= (byte) (1 << (i & 7));
+    }
+
+    private static boolean get(byte[] planes, int at, int i) {
+        return (planes[at + (i >>> 3)] & (1 << (i & 7))) != 0;
+    }
+
+    private static byte[] runLengths(byte[] bits) {
+        var out = new ByteArrayOutputStream();
+        var total = bits.length * 8;
+        var current = false;
+        var run = 0;
+        for (int i = 0; i < total; i++) {
+            var bit = (bits[i >>> 3] & (1 << (i & 7))) != 0;
+            if (bit != current) {
+                writeVarint(out, run);
+                current = bit;
+                run = 0;
+            }
+            run++;
+        }
+        writeVarint(out, run);
+        return out.toByteArray();
+    }
+
+    // returns null if the runs don't add up to exactly `bytes` bytes
+    private static byte[] expandRuns(byte[] runs, int bytes) {
+        var out = new byte[bytes];
+        var buf = ByteBuffer.wrap(runs);
+        var i = 0;
+        var bit = false;
+        while (buf.hasRemaining()) {
+            var run = readVarint(buf);
+            if (run < 0 || i + (long) run > bytes * 8L) {
+                return null;
+            }
+            if (bit) {
+                for (int k = i; k < i + run; k++) {
+                    out[k >>> 3] |= (byte) (1 << (k & 7));
+                }
+            }
+            i += run;
+            bit = !bit;
+        }
+        return i == bytes * 8 ? out : null;
+    }
+
+    static void writeVarint(ByteArrayOutputStream out, int v) {
+        while ((v & ~0x7f) != 0) {
+            out.write((v & 0x7f) | 0x80);
+            v >>>= 7;
+        }
+        out.write(v);
+    }
+
+    // returns -1 on a malformed (too long or truncated) varint
+    static int readVarint(InputStream in) throws IOException {
+        var v = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            var b = in.read();
+            if (b < 0) {
+                return -1;
+            }
+            v |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return v;
+            }
+        }
+        return -1;
+    }
+
+    static int readVarint(ByteBuffer buf) {
+        var v = 0;
+        for (int shift = 0; shift < 32 && buf.hasRemaining(); shift += 7) {
+            var b = buf.get();
+            v |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return v;
+            }
+        }
+        return -1;
+    }
+}
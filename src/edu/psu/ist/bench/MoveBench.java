@@ -0,0 +1,113 @@
+package edu.psu.ist.bench;
+
+import edu.psu.ist.MinesweeperGame;
+import edu.psu.ist.SquareBoard;
+import edu.psu.ist.TileType;
+import edu.psu.ist.generator.RandomBoards;
+
+import java.util.SplittableRandom;
+
+/**
+ * Compares how many moves per second a bot gets through playing a random
+ * board's safe cells (in a shuffled order) one {@link MinesweeperGame#revealSquare}
+ * + {@link MinesweeperGame#advanceGame} + {@link MinesweeperGame#inWinState}
+ * at a time versus in {@link MinesweeperGame#applyMoves(int[]) batches}:
+ * <pre>
+ *     java -cp ... edu.psu.ist.bench.MoveBench [batch size] [rounds]
+ * </pre>
+ * Each round plays every board to a win both ways; the first half of the
+ * rounds are warmup, the best of the rest is reported.
+ */
+public final class MoveBench {
+
+    private MoveBench() {}
+
+    private static final int[] Dims = {16, 64, 256, 512};
+    private static final double Density = 0.15;
+
+    public static void main(String[] args) {
+        var batchSize = args.length >= 1 ? Integer.parseInt(args[0]) : 256;
+        var rounds = args.length >= 2 ? Integer.parseInt(args[1]) : 10;
+
+        System.out.printf("%-10s %8s %16s %16s %8s%n", "board", "moves", "per-call mv/s", "batched mv/s", "speedup");
+        for (var dim : Dims) {
+            var board = RandomBoards.random(dim, (int) (dim * dim * Density), dim);
+            var moves = safeCellsShuffled(board, dim);
+            double perCall = 0;
+            double batched = 0;
+            for (int round = 0; round < rounds; round++) {
+                var a = movesPerSec(moves.length / 2, () -> playPerCall(board, moves));
+                var b = movesPerSec(moves.length / 2, () -> playBatched(board, moves, batchSize));
+                if (round >= rounds / 2) {
+                    perCall = Math.max(perCall, a);
+                    batched = Math.max(batched, b);
+                }
+            }
+            System.out.printf("%-10s %8d %16.0f %16.0f %7.1fx%n",
+                    dim + "x" + dim, moves.length / 2, perCall, batched, batched / perCall);
+        }
+    }
+
+    private static double movesPerSec(int moveCount, Runnable play) {
+        var start = System.nanoTime();
+        play.run();
+        return moveCount * 1e9 / (System.nanoTime() - start);
+    }
+
+    private static void playPerCall(SquareBoard board, int[] moves) {
+        var g = new MinesweeperGame(board);
+        for (int i = 0; i < moves.length; i += 2) {
+            if (g.revealSquare(moves[i], moves[i + 1]) instanceof TileType.Mine) {
+                throw new IllegalStateException("the bench only plays safe cells");
+            }
+            g.advanceGame(moves[i], moves[i + 1]);
+            g.inWinState();
+        }
+        check(g.inWinState());
+    }
+
+    private static void playBatched(SquareBoard board, int[] moves, int batchSize) {
+        var g = new MinesweeperGame(board);
+        var won = false;
+        for (int from = 0; from < moves.length; from += 2 * batchSize) {
+            var batch = new int[Math.min(2 * batchSize, moves.length - from)];
+            System.arraycopy(moves, from, batch, 0, batch.length);
+            var result = g.applyMoves(batch);
+            if (result.lost()) {
+                throw new IllegalStateException("the bench only plays safe cells");
+            }
+            won = result.won();
+        }
+        check(won);
+    }
+
+    private static void check(boolean won) {
+        if (!won) {
+            throw new IllegalStateException("playing every safe cell should win");
+        }
+    }
+
+    // every safe cell as (row, col) pairs, in a (seeded) random order
+    private static int[] safeCellsShuffled(SquareBoard board, int dim) {
+        var cells = new int[dim * dim];
+        var n = 0;
+        for (int cell = 0; cell < dim * dim; cell++) {
+            if (!board.tileAt(cell / dim, cell % dim).isMine()) {
+                cells[n++] = cell;
+            }
+        }
+        var rnd = new SplittableRandom(dim);
+        for (int i = n - 1; i > 0; i--) {
+            var j = rnd.nextInt(i + 1);
+            var t = cells[i];
+            cells[i] = cells[j];
+            cells[j] = t;
+        }
+        var moves = new int[2 * n];
+        for (int i = 0; i < n; i++) {
+            moves[2 * i] = cells[i] / dim;
+            moves[2 * i + 1] = cells[i] % dim;
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,112 @@
+package edu.psu.ist.bench;
+
+import edu.psu.ist.Cli;
+import edu.psu.ist.generator.RandomBoards;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures how long a fresh {@link Cli} jvm takes to render its first board
+ * and to show its first prompt -- for the sample board ({@link Cli#ExBoard01})
+ * and for boards loaded from files -- over a number of runs:
+ * <pre>
+ *     java -cp ... edu.psu.ist.bench.StartupBench [runs] [archive.jsa]
+ * </pre>
+ * Given an AppCDS archive (see the pom's {@code appcds} profile) every case
+ * is also run with {@code -XX:SharedArchiveFile} pointing at it. Children
+ * get this jvm's flags and classpath (so run it the way the cli is run --
+ * an archive only applies to the classpath it was dumped with) and autosave
+ * to a scratch directory.
+ */
+public final class StartupBench {
+
+    private StartupBench() {}
+
+    /** Milliseconds from launch to the end of the first render and to the first prompt. */
+    record Timing(double renderMillis, double promptMillis) {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var runs = args.length >= 1 ? Integer.parseInt(args[0]) : 10;
+        var archive = args.length >= 2 ? args[1] : null;
+
+        var scratch = Files.createTempDirectory("startup-bench");
+        var small = scratch.resolve("ex01.swp");
+        Files.writeString(small, Cli.ExBoard01.exampleBoardText());
+        var large = scratch.resolve("random64.swp");
+        Files.writeString(large, RandomBoards.random(64, 600, 1).toString().replace(" ", "") + "\n");
+
+        var cases = new ArrayList<List<String>>();
+        cases.add(List.of());
+        cases.add(List.of(small.toString()));
+        cases.add(List.of(large.toString()));
+        System.out.printf("%-28s %-8s %28s %28s%n", "board", "cds", "first render (min/p50/max)", "first prompt (min/p50/max)");
+        for (var cliArgs : cases) {
+            for (var cds : archive == null ? List.of(false) : List.of(false, true)) {
+                var timings = new Timing[runs];
+                for (int i = 0; i < runs; i++) {
+                    var flags = new ArrayList<String>();
+                    flags.add("-Dminesweeper.autosave.dir=" + scratch.resolve("saves"));
+                    if (cds) {
+                        flags.add("-XX:SharedArchiveFile=" + archive);
+                    }
+                    timings[i] = launch(flags, cliArgs);
+                }
+                var name = cliArgs.isEmpty() ? "sample (ExBoard01)" : Path.of(cliArgs.getFirst()).getFileName().toString();
+                System.out.printf("%-28s %-8s %28s %28s%n", name, cds ? "appcds" : "default",
+                        summary(timings, true), summary(timings, false));
+            }
+        }
+    }
+
+    // starts a cli jvm, timing its output up to the first prompt, then quits it
+    private static Timing launch(List<String> flags, List<String> cliArgs) throws IOException, InterruptedException {
+        var cmd = new ArrayList<String>();
+        cmd.add(ProcessHandle.current().info().command().orElse("java"));
+        for (var arg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (!arg.startsWith("-agentlib:jdwp") && !arg.startsWith("-XX:SharedArchiveFile")) {
+                cmd.add(arg);
+            }
+        }
+        cmd.addAll(flags);
+        cmd.addAll(List.of("-cp", System.getProperty("java.class.path"), "edu.psu.ist.Cli"));
+        cmd.addAll(cliArgs);
+
+        var start = System.nanoTime();
+        var proc = new ProcessBuilder(cmd).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        var render = -1.0;
+        var prompt = -1.0;
+        try (var out = new BufferedReader(new InputStreamReader(proc.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (prompt < 0 && (line = out.readLine()) != null) {
+                var millis = (System.nanoTime() - start) / 1e6;
+                if (line.startsWith("hidden ct:")) { // the last line of a render
+                    render = millis;
+                } else if (line.startsWith("enter a row,col")) {
+                    prompt = millis;
+                }
+            }
+            proc.getOutputStream().write("q\n".getBytes(StandardCharsets.US_ASCII));
+            proc.getOutputStream().close();
+            out.transferTo(Writer.nullWriter());
+        }
+        proc.waitFor();
+        return new Timing(render, prompt);
+    }
+
+    private static String summary(Timing[] timings, boolean render) {
+        var ms = Arrays.stream(timings)
+                .mapToDouble(t -> render ? t.renderMillis() : t.promptMillis())
+                .sorted().toArray();
+        return String.format("%.1f / %.1f / %.1f ms", ms[0], ms[ms.length / 2], ms[ms.length - 1]);
+    }
+}
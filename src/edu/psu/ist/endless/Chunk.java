@@ -0,0 +1,71 @@
+package edu.psu.ist.endless;
+
+/**
+ * A {@code Size}x{@code Size} block of an {@link EndlessBoard}.
+ * <p>
+ * Its mine bitmap is <em>derived</em> (recomputable from the board's seed
+ * at any time); only the revealed bitmap is real state. A chunk with
+ * nothing revealed is therefore "clean" and may be dropped and rebuilt
+ * later -- once something in it is revealed it's "dirty" and must be kept.
+ */
+final class Chunk {
+
+    static final int Bits = 6;
+    static final int Size = 1 << Bits;
+    static final int Mask = Size - 1;
+
+    /** The position of a chunk: cell {@code row,col} is in chunk {@code row >> Bits, col >> Bits}. */
+    record Pos(long row, long col) {
+        static Pos of(long row, long col) {
+            return new Pos(row >> Bits, col >> Bits);
+        }
+    }
+
+    // one long per row: bit c of mines[r] is cell (r, c) of the chunk
+    private final long[] mines = new long[Size];
+    private long[] revealed; // null while clean
+    private int revealedCount;
+
+    Chunk(Pos pos, MineField field) {
+        var row0 = pos.row() << Bits;
+        var col0 = pos.col() << Bits;
+        for (int r = 0; r < Size; r++) {
+            var bits = 0L;
+            for (int c = 0; c < Size; c++) {
+                if (field.isMine(row0 + r, col0 + c)) {
+                    bits |= 1L << c;
+                }
+            }
+            mines[r] = bits;
+        }
+    }
+
+    boolean isMine(int r, int c) {
+        return (mines[r] & (1L << c)) != 0;
+    }
+
+    boolean isRevealed(int r, int c) {
+        return revealed != null && (revealed[r] & (1L << c)) != 0;
+    }
+
+    /** Marks {@code r,c} revealed, returning false if it already was. */
+    boolean reveal(int r, int c) {
+        if (revealed == null) {
+            revealed = new long[Size];
+        }
+        if ((revealed[r] & (1L << c)) != 0) {
+            return false;
+        }
+        revealed[r] |= 1L << c;
+        revealedCount++;
+        return true;
+    }
+
+    boolean isDirty() {
+        return revealed != null;
+    }
+
+    int revealedCount() {
+        return revealedCount;
+    }
+}
@@ -0,0 +1,239 @@
+package edu.psu.ist.endless;
+
+import edu.psu.ist.TileType;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static edu.psu.ist.TileType.*;
+
+/**
+ * An endless (unbounded) minesweeper board addressed by 64-bit
+ * coordinates. Unlike a {@link edu.psu.ist.SquareBoard}, nothing is laid
+ * out up front: mines come from a {@link MineField} (a hash of the seed and
+ * the coordinates) and cells are materialized in {@link Chunk}s on demand.
+ * <p>
+ * Chunks the player has revealed something in are <em>dirty</em> and kept
+ * for good; all others are <em>clean</em> (their mine bitmaps can be
+ * recomputed from the seed) and live in a bounded lru cache -- so memory
+ * grows with the explored area only, no matter how far lookups roam.
+ * <p>
+ * The class is mutable and (like {@link edu.psu.ist.MinesweeperGame}) not
+ * thread safe.
+ */
+public final class EndlessBoard {
+
+    /** The default number of clean chunks kept around for lookups. */
+    public static final int DefaultCleanChunks = 256;
+
+    /** The default maximum number of cells a single reveal uncovers. */
+    public static final int DefaultMaxCascade = 1 << 16;
+
+    private final MineField field;
+    private final int maxCascade;
+    private final Map<Chunk.Pos, Chunk> dirty = new HashMap<>();
+    private final LinkedHashMap<Chunk.Pos, Chunk> clean;
+    private long revealedCount = 0;
+
+    // revealed zero cells whose neighbours a capped cascade hasn't revealed
+    // yet, as (row, col) pairs -- picked up again by the next reveal
+    private long[] frontier = new long[64];
+    private int frontierTop = 0;
+
+    // the last chunk looked up -- neighbour lookups mostly stay in one chunk
+    private Chunk.Pos lastPos;
+    private Chunk lastChunk;
+
+    public EndlessBoard(MineField field, int maxCleanChunks, int maxCascade) {
+        this.field = field;
+        this.maxCascade = maxCascade;
+        this.clean = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<Chunk.Pos, Chunk> eldest) {
+                return size() > maxCleanChunks;
+            }
+        };
+    }
+
+    public EndlessBoard(long seed, double density) {
+        this(new MineField(seed, density), DefaultCleanChunks, DefaultMaxCascade);
+    }
+
+    public MineField mineField() {
+        return field;
+    }
+
+    /**
+     * Returns the tile at {@code row,col}: its {@link TileType.Uncovered}
+     * count once revealed, otherwise a mine or hidden tile (as on a freshly
+     * loaded {@link edu.psu.ist.SquareBoard}).
+     */
+    public TileType tileAt(long row, long col) {
+        var chunk = chunk(row, col);
+        var r = (int) (row & Chunk.Mask);
+        var c = (int) (col & Chunk.Mask);
+        if (chunk.isRevealed(r, c)) {
+            return un(adjacentMines(row, col));
+        }
+        return chunk.isMine(r, c) ? mine() : hidden();
+    }
+
+    public boolean isRevealed(long row, long col) {
+        return chunk(row, col).isRevealed((int) (row & Chunk.Mask), (int) (col & Chunk.Mask));
+    }
+
+    /** Returns the number of mines among the 8 cells around {@code row,col}. */
+    public int adjacentMines(long row, long col) {
+        var count = 0;
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                if ((dr != 0 || dc != 0) && isMine(row + dr, col + dc)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private boolean isMine(long row, long col) {
+        return chunk(row, col).isMine((int) (row & Chunk.Mask), (int) (col & Chunk.Mask));
+    }
+
+    /**
+     * Reveals {@code row,col}, returning the tile found there. Revealing a
+     * cell with no adjacent mines keeps uncovering outward through zero
+     * cells -- but (since an opening on a sparse endless board may never
+     * end) by at most {@code maxCascade} cells per call. A capped cascade
+     * isn't dropped: its unfinished frontier (see {@link #pendingCascade()})
+     * is carried on by the next reveal, or by {@link #continueCascade()}.
+     */
+    public TileType reveal(long row, long col) {
+        if (isMine(row, col)) {
+            return mine();
+        }
+        var uncovered = 0;
+        if (markRevealed(row, col)) {
+            uncovered++;
+            push(row, col);
+        }
+        cascade(uncovered);
+        return un(adjacentMines(row, col));
+    }
+
+    /**
+     * Carries on a cascade that hit the {@code maxCascade} cap, uncovering
+     * at most that many more cells; returns how many it uncovered.
+     */
+    public int continueCascade() {
+        return cascade(0);
+    }
+
+    /**
+     * Returns the number of revealed zero cells at the edge of a capped
+     * cascade -- cells whose neighbours are still to be uncovered (0 when
+     * every opening revealed so far is complete).
+     */
+    public int pendingCascade() {
+        return frontierTop / 2;
+    }
+
+    // floods outward from the frontier until it's empty or (counting the
+    // `uncovered` cells already revealed by this call) maxCascade is hit;
+    // returns the cells uncovered in total
+    private int cascade(int uncovered) {
+        while (frontierTop > 0 && uncovered < maxCascade) {
+            var c = frontier[--frontierTop];
+            var r = frontier[--frontierTop];
+            if (adjacentMines(r, c) != 0) {
+                continue;
+            }
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    if (uncovered == maxCascade) {
+                        push(r, c); // revisited next time (revealed neighbours are skipped)
+                        return uncovered;
+                    }
+                    if ((dr != 0 || dc != 0) && markRevealed(r + dr, c + dc)) {
+                        uncovered++;
+                        push(r + dr, c + dc);
+                    }
+                }
+            }
+        }
+        return uncovered;
+    }
+
+    private void push(long row, long col) {
+        if (frontierTop + 2 > frontier.length) {
+            frontier = Arrays.copyOf(frontier, frontier.length * 2);
+        }
+        frontier[frontierTop++] = row;
+        frontier[frontierTop++] = col;
+    }
+
+    // marks the (safe) cell revealed, turning its chunk dirty
+    private boolean markRevealed(long row, long col) {
+        var pos = Chunk.Pos.of(row, col);
+        var chunk = chunk(row, col);
+        if (!chunk.isDirty()) {
+            clean.remove(pos);
+            dirty.put(pos, chunk);
+        }
+        if (chunk.reveal((int) (row & Chunk.Mask), (int) (col & Chunk.Mask))) {
+            revealedCount++;
+            return true;
+        }
+        return false;
+    }
+
+    private Chunk chunk(long row, long col) {
+        var pos = Chunk.Pos.of(row, col);
+        if (pos.equals(lastPos)) {
+            return lastChunk;
+        }
+        var chunk = dirty.get(pos);
+        if (chunk == null) {
+            chunk = clean.get(pos);
+            if (chunk == null) {
+                chunk = new Chunk(pos, field);
+                clean.put(pos, chunk);
+            }
+        }
+        lastPos = pos;
+        lastChunk = chunk;
+        return chunk;
+    }
+
+    /** Returns the total number of cells revealed so far. */
+    public long revealedCount() {
+        return revealedCount;
+    }
+
+    /** Returns the number of chunks holding revealed cells (never evicted). */
+    public int dirtyChunks() {
+        return dirty.size();
+    }
+
+    /** Returns the number of (evictable) clean chunks currently cached. */
+    public int cleanChunks() {
+        return clean.size();
+    }
+
+    /**
+     * Renders the {@code height}x{@code width} window whose top-left cell is
+     * {@code row,col} as the player sees it (unrevealed cells -- mines
+     * included -- are shown hidden).
+     */
+    public String render(long row, long col, int height, int width) {
+        var sb = new StringBuilder();
+        for (long r = row; r < row + height; r++) {
+            for (long c = col; c < col + width; c++) {
+                sb.append(isRevealed(r, c) ? tileAt(r, c).cellAsString() : hidden().cellAsString());
+                sb.append(c + 1 < col + width ? " " : "");
+            }
+            sb.append(r + 1 < row + height ? "\n" : "");
+        }
+        return sb.toString();
+    }
+}
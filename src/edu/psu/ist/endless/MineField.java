@@ -0,0 +1,28 @@
+package edu.psu.ist.endless;
+
+/**
+ * The (infinite) mine layout of an endless board: whether a cell holds a
+ * mine is a pure function of {@code (seed, row, col)}, so no part of the
+ * layout ever needs storing.
+ */
+public record MineField(long seed, double density) {
+
+    public MineField {
+        if (density < 0 || density > 1) {
+            throw new IllegalArgumentException("density must be in [0, 1]: " + density);
+        }
+    }
+
+    public boolean isMine(long row, long col) {
+        var h = mix(seed ^ mix(row * 0x9e3779b97f4a7c15L ^ mix(col)));
+        // top 53 bits as a uniform double in [0, 1)
+        return (h >>> 11) * 0x1.0p-53 < density;
+    }
+
+    // the splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,29 @@
+package edu.psu.ist.events;
+
+import edu.psu.ist.SquareBoard;
+import edu.psu.ist.TileChange;
+import io.vavr.collection.Vector;
+
+/**
+ * The tiles changed by one move (or, once coalesced, by a run of
+ * consecutive moves {@code firstMove..lastMove}) along with the board they
+ * produced.
+ */
+public record BoardDelta(long firstMove, long lastMove,
+                         Vector<TileChange> changes, SquareBoard board) {
+
+    public static BoardDelta of(long move, Vector<TileChange> changes, SquareBoard board) {
+        return new BoardDelta(move, move, changes, board);
+    }
+
+    /**
+     * Coalesces the run of consecutive deltas {@code first..last} that took
+     * the game from board {@code before}: each cell changed by the run
+     * appears once (cells back where they started don't). Found by
+     * {@link SquareBoard#changesTo diffing} the boards, so it costs the
+     * same however long the run.
+     */
+    public static BoardDelta between(SquareBoard before, BoardDelta first, BoardDelta last) {
+        return new BoardDelta(first.firstMove, last.lastMove, before.changesTo(last.board), last.board);
+    }
+}
@@ -0,0 +1,184 @@
+package edu.psu.ist.events;
+
+import edu.psu.ist.SquareBoard;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Flow.Publisher} of {@link BoardDelta}s that never blocks (or
+ * drops data on) the publishing game thread.
+ * <p>
+ * Each subscription gets a bounded buffer, drained on an {@link Executor}
+ * as the subscriber requests more. If a subscriber falls behind and its
+ * buffer fills up, the incoming deltas become a single pending run of
+ * which only the endpoints are kept -- O(1) per move for the publisher --
+ * and the run is {@link BoardDelta#between coalesced} on the delivery
+ * thread once the subscriber gets to it: the slow subscriber sees fewer,
+ * larger deltas, but still ends up with every cell's latest tile.
+ */
+public final class DeltaPublisher implements Flow.Publisher<BoardDelta> {
+
+    /** Default per-subscriber buffer size (in deltas). */
+    public static final int DefaultBufferSize = 64;
+
+    private static final Executor VirtualThreads = r -> Thread.ofVirtual().name("delta-delivery").start(r);
+
+    private final CopyOnWriteArrayList<DeltaSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Executor executor;
+    private final int bufferSize;
+
+    /**
+     * @param bufferSize how many deltas (a coalesced run counting as one)
+     *                   a subscriber may have pending; at least 1.
+     */
+    public DeltaPublisher(Executor executor, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("buffer size must be positive: " + bufferSize);
+        }
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+    }
+
+    public DeltaPublisher() {
+        this(VirtualThreads, DefaultBufferSize);
+    }
+
+    /** Returns true if anyone is listening (so callers can skip building deltas). */
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    @Override public void subscribe(Flow.Subscriber<? super BoardDelta> subscriber) {
+        var sub = new DeltaSubscription(subscriber);
+        subscriptions.add(sub);
+        subscriber.onSubscribe(sub);
+    }
+
+    /** Hands {@code delta} to every subscriber; never blocks. */
+    public void publish(BoardDelta delta) {
+        for (var s : subscriptions) {
+            s.offer(delta);
+        }
+    }
+
+    /** Completes every subscription (once its buffered deltas are delivered). */
+    public void close() {
+        for (var s : subscriptions) {
+            s.complete();
+        }
+        subscriptions.clear();
+    }
+
+    private final class DeltaSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super BoardDelta> subscriber;
+        private final ArrayDeque<BoardDelta> buffer = new ArrayDeque<>();
+        // the pending run of deltas that arrived while the buffer was full:
+        // the board before it plus its first and latest delta (runLast is
+        // null while there's no run)
+        private SquareBoard runBase;
+        private BoardDelta runFirst;
+        private BoardDelta runLast;
+        private SquareBoard lastOffered; // the board of the latest delta offered
+        private final AtomicInteger wip = new AtomicInteger(); // pending drain signals
+        private long demand;
+        private boolean completed;
+        private volatile boolean cancelled;
+
+        DeltaSubscription(Flow.Subscriber<? super BoardDelta> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void offer(BoardDelta delta) {
+            synchronized (this) {
+                if (runLast != null) {
+                    runLast = delta;
+                } else if (buffer.size() < bufferSize - 1 || lastOffered == null) {
+                    buffer.addLast(delta);
+                } else { // the last slot: start a run
+                    runBase = lastOffered;
+                    runFirst = delta;
+                    runLast = delta;
+                }
+                lastOffered = delta.board();
+            }
+            signal();
+        }
+
+        void complete() {
+            synchronized (this) {
+                completed = true;
+            }
+            signal();
+        }
+
+        @Override public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("non-positive request: " + n));
+                return;
+            }
+            synchronized (this) {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n; // saturate
+            }
+            signal();
+        }
+
+        @Override public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void signal() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        // runs on the executor, never concurrently with itself (guarded by wip)
+        private void drain() {
+            var missed = 1;
+            do {
+                while (!cancelled) {
+                    BoardDelta next = null;
+                    SquareBoard base = null;
+                    BoardDelta first = null;
+                    var done = false;
+                    synchronized (this) {
+                        if (demand > 0 && !buffer.isEmpty()) {
+                            next = buffer.pollFirst();
+                            demand--;
+                        } else if (demand > 0 && runLast != null) {
+                            base = runBase;
+                            first = runFirst;
+                            next = runLast;
+                            runBase = null;
+                            runFirst = null;
+                            runLast = null;
+                            demand--;
+                        } else {
+                            done = completed && buffer.isEmpty() && runLast == null;
+                        }
+                    }
+                    if (first != null && first != next) {
+                        next = BoardDelta.between(base, first, next); // (outside the lock)
+                    }
+                    if (next != null) {
+                        subscriber.onNext(next);
+                    } else {
+                        if (done) {
+                            cancelled = true;
+                            subscriber.onComplete();
+                        }
+                        break;
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
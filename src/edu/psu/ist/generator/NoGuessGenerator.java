@@ -0,0 +1,113 @@
+package edu.psu.ist.generator;
+
+import edu.psu.ist.SquareBoard;
+import edu.psu.ist.solver.LocalPatternSolver;
+import io.vavr.collection.Vector;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates boards that can be cleared by logic alone (no guessing) from a
+ * given first click.
+ * <p>
+ * Candidates are numbered 0, 1, 2, ... and candidate {@code i} is laid out
+ * from a random stream derived from {@code (seed, i)}. Worker threads claim
+ * candidate numbers speculatively, each checking its candidates on its own
+ * reused {@link ScratchBoard} (only survivors are ever turned into a
+ * {@link SquareBoard}). Once {@code target} survivors are known, no
+ * candidate numbered past the {@code target}-th survivor is claimed -- so
+ * the result is always the <em>first</em> {@code target} survivors, the
+ * same no matter how many threads ran or how they were scheduled.
+ */
+public final class NoGuessGenerator {
+
+    private final int threads;
+    private final LocalPatternSolver solver;
+
+    public NoGuessGenerator(int threads, LocalPatternSolver solver) {
+        this.threads = threads;
+        this.solver = solver;
+    }
+
+    public NoGuessGenerator() {
+        this(Runtime.getRuntime().availableProcessors(), new LocalPatternSolver());
+    }
+
+    /**
+     * Returns (up to) {@code target} no-guess {@code dim}x{@code dim} boards
+     * with {@code mineCount} mines each, all solvable from a first click on
+     * {@code row,col}. Fewer are returned if {@code maxCandidates} candidates
+     * are checked without finding enough.
+     *
+     * @throws IllegalArgumentException if {@code row,col} is off the board,
+     *         or {@code mineCount} is negative or more than
+     *         {@link #maxMines} (no candidate could ever be cleared).
+     */
+    public Vector<SquareBoard> generate(int dim, int mineCount, int row, int col,
+                                        int target, long seed, long maxCandidates) {
+        if (row < 0 || row >= dim || col < 0 || col >= dim) {
+            throw new IllegalArgumentException(
+                    "first click " + row + "," + col + " is off a " + dim + "x" + dim + " board");
+        }
+        if (mineCount < 0 || mineCount > maxMines(dim, row, col)) {
+            throw new IllegalArgumentException("a " + dim + "x" + dim + " board clicked at " + row + "," + col
+                    + " fits 0 to " + maxMines(dim, row, col) + " mines, not " + mineCount);
+        }
+        var survivors = new ConcurrentSkipListMap<Long, String[]>();
+        var next = new AtomicLong();
+        var stopAfter = new AtomicLong(maxCandidates - 1);
+
+        var workers = new ArrayList<Thread>(threads);
+        for (int t = 0; t < threads; t++) {
+            workers.add(Thread.ofPlatform().name("no-guess-" + t).start(() -> {
+                var scratch = new ScratchBoard();
+                var checker = new NoGuessSolver(solver);
+                for (var i = next.getAndIncrement(); i <= stopAfter.get(); i = next.getAndIncrement()) {
+                    scratch.reset(dim, mineCount, row, col, candidateRandom(seed, i));
+                    if (checker.solvable(scratch, row, col)) {
+                        survivors.put(i, scratch.rowsAsText());
+                        if (survivors.size() >= target) {
+                            // the target-th survivor so far bounds what's still worth checking
+                            var kth = survivors.keySet().stream().skip(target - 1).findFirst();
+                            kth.ifPresent(k -> stopAfter.accumulateAndGet(k, Math::min));
+                        }
+                    }
+                }
+            }));
+        }
+        for (var w : workers) {
+            try {
+                w.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return Vector.ofAll(survivors.values()).take(target).map(NoGuessGenerator::toBoard);
+    }
+
+    /**
+     * Returns the most mines a {@code dim}x{@code dim} board can have with
+     * none in the 3x3 block around a first click on {@code row,col}.
+     */
+    public static int maxMines(int dim, int row, int col) {
+        var blockRows = Math.min(row + 1, dim - 1) - Math.max(row - 1, 0) + 1;
+        var blockCols = Math.min(col + 1, dim - 1) - Math.max(col - 1, 0) + 1;
+        return dim * dim - blockRows * blockCols;
+    }
+
+    private static SplittableRandom candidateRandom(long seed, long i) {
+        return new SplittableRandom(seed ^ (i * 0x9e3779b97f4a7c15L));
+    }
+
+    private static SquareBoard toBoard(String[] rows) {
+        var b = new SquareBoard.ValidatingBoardBuilder();
+        for (var r : rows) {
+            b.row(r);
+        }
+        return b.build().get(); // generated rows are always well formed
+    }
+}
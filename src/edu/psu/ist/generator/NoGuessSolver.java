@@ -0,0 +1,85 @@
+package edu.psu.ist.generator;
+
+import edu.psu.ist.solver.Deduction;
+import edu.psu.ist.solver.LocalPatternSolver;
+import edu.psu.ist.solver.PatternKey;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * A deterministic solver that plays a {@link ScratchBoard} from its first
+ * click using only deductions (never guessing) and reports whether that's
+ * enough to clear the board.
+ */
+final class NoGuessSolver {
+
+    private final LocalPatternSolver solver;
+
+    NoGuessSolver(LocalPatternSolver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Returns true if {@code board} can be cleared by logic alone starting
+     * with a click on {@code row,col}.
+     */
+    boolean solvable(ScratchBoard board, int row, int col) {
+        board.reveal(row, col);
+        var dim = board.dim;
+        IntBinaryOperator codes = board::playerCode;
+        var progress = true;
+        while (progress && !board.cleared()) {
+            progress = false;
+            for (int r = 0; r < dim; r++) {
+                for (int c = 0; c < dim; c++) {
+                    if (onFrontier(board, r, c)) {
+                        var d = solver.deduce(dim, codes, r, c);
+                        progress |= apply(board, d, r, c);
+                    }
+                }
+            }
+        }
+        return board.cleared();
+    }
+
+    // a revealed number with at least one unrevealed, not-known-mine neighbour
+    private static boolean onFrontier(ScratchBoard b, int r, int c) {
+        var i = r * b.dim + c;
+        if (!b.revealed[i] || b.counts[i] == 0) {
+            return false;
+        }
+        for (int k = b.table.start(i); k < b.table.end(i); k++) {
+            var j = b.table.at(k);
+            if (!b.revealed[j] && !b.knownMines[j]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean apply(ScratchBoard b, Deduction d, int row, int col) {
+        var progress = false;
+        for (var m = d.safeMask(); m != 0; m &= m - 1) {
+            var i = Integer.numberOfTrailingZeros(m);
+            var r = row + i / PatternKey.Size - PatternKey.Radius;
+            var c = col + i % PatternKey.Size - PatternKey.Radius;
+            if (!b.revealed[r * b.dim + c]) {
+                if (b.mines[r * b.dim + c]) {
+                    throw new IllegalStateException("solver deduced a mine as safe");
+                }
+                b.reveal(r, c);
+                progress = true;
+            }
+        }
+        for (var m = d.mineMask(); m != 0; m &= m - 1) {
+            var i = Integer.numberOfTrailingZeros(m);
+            var cell = (row + i / PatternKey.Size - PatternKey.Radius) * b.dim
+                    + (col + i % PatternKey.Size - PatternKey.Radius);
+            if (!b.knownMines[cell]) {
+                b.knownMines[cell] = true;
+                progress = true;
+            }
+        }
+        return progress;
+    }
+}
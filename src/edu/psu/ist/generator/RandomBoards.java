@@ -0,0 +1,27 @@
+package edu.psu.ist.generator;
+
+import edu.psu.ist.SquareBoard;
+
+import java.util.SplittableRandom;
+
+/** Factory methods for (plain, possibly guess-requiring) random boards. */
+public final class RandomBoards {
+
+    private RandomBoards() {}
+
+    /**
+     * Returns an all-hidden {@code dim}x{@code dim} board with
+     * {@code mineCount} mines placed uniformly at random -- the same board
+     * for the same {@code seed}.
+     */
+    public static SquareBoard random(int dim, int mineCount, long seed) {
+        var scratch = new ScratchBoard();
+        // a first click outside the board excludes no cells from holding mines
+        scratch.reset(dim, Math.min(mineCount, dim * dim), -2, -2, new SplittableRandom(seed));
+        var b = new SquareBoard.ValidatingBoardBuilder();
+        for (var row : scratch.rowsAsText()) {
+            b.row(row);
+        }
+        return b.build().get(); // generated rows are always well formed
+    }
+}
@@ -0,0 +1,159 @@
+package edu.psu.ist.generator;
+
+import edu.psu.ist.NeighbourTable;
+import edu.psu.ist.Topology;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A mutable, primitive-array board that one generator worker reuses for
+ * every candidate it checks. Unlike {@link edu.psu.ist.SquareBoard}, laying
+ * out a new candidate allocates nothing (once the arrays have grown to the
+ * largest dimension seen) -- which matters when nearly all candidates are
+ * thrown away.
+ * <p>
+ * Not thread safe: each worker owns its own scratch board.
+ */
+final class ScratchBoard {
+
+    int dim;
+    NeighbourTable table;
+    int mineCount;
+    boolean[] mines = new boolean[0];
+    byte[] counts = new byte[0];
+    boolean[] revealed = new boolean[0];
+    boolean[] knownMines = new boolean[0];
+    int revealedCount;
+    private int[] stack = new int[0];
+    private int[] cells = new int[0];
+
+    /**
+     * Lays out a fresh candidate: {@code mineCount} mines placed uniformly
+     * at random (by {@code rnd}), but never in the 3x3 block around the
+     * first click {@code row,col} -- so the first click always opens up.
+     */
+    void reset(int dim, int mineCount, int row, int col, SplittableRandom rnd) {
+        prepare(dim);
+        var n = dim * dim;
+
+        // partial fisher-yates over the cells outside the first click's block
+        var free = 0;
+        for (int i = 0; i < n; i++) {
+            if (Math.abs(i / dim - row) > 1 || Math.abs(i % dim - col) > 1) {
+                cells[free++] = i;
+            }
+        }
+        for (int k = 0; k < mineCount && k < free; k++) {
+            var j = k + rnd.nextInt(free - k);
+            var tmp = cells[k];
+            cells[k] = cells[j];
+            cells[j] = tmp;
+            mines[cells[k]] = true;
+        }
+        this.mineCount = Math.min(mineCount, free);
+        countMines();
+    }
+
+    /**
+     * Lays out exactly the (row-major) mines of {@code layout} -- e.g. to
+     * replay a given board rather than a random candidate.
+     */
+    void reset(int dim, boolean[] layout) {
+        prepare(dim);
+        for (int i = 0; i < dim * dim; i++) {
+            mines[i] = layout[i];
+            mineCount += layout[i] ? 1 : 0;
+        }
+        countMines();
+    }
+
+    // (re)sizes and clears the arrays for a dim x dim board without mines
+    private void prepare(int dim) {
+        var n = dim * dim;
+        if (mines.length < n) {
+            mines = new boolean[n];
+            counts = new byte[n];
+            revealed = new boolean[n];
+            knownMines = new boolean[n];
+            stack = new int[n];
+            cells = new int[n];
+        }
+        this.dim = dim;
+        this.table = Topology.Square.table(dim);
+        this.mineCount = 0;
+        this.revealedCount = 0;
+        Arrays.fill(mines, 0, n, false);
+        Arrays.fill(revealed, 0, n, false);
+        Arrays.fill(knownMines, 0, n, false);
+    }
+
+    private void countMines() {
+        for (int i = 0; i < dim * dim; i++) {
+            byte ct = 0;
+            for (int k = table.start(i); k < table.end(i); k++) {
+                if (mines[table.at(k)]) {
+                    ct++;
+                }
+            }
+            counts[i] = ct;
+        }
+    }
+
+    /**
+     * Reveals (safe) cell {@code row,col}, flooding out through zero cells
+     * with an explicit stack (cells are marked as they're pushed, so the
+     * stack never holds more than every cell once).
+     */
+    void reveal(int row, int col) {
+        var start = row * dim + col;
+        if (revealed[start]) {
+            return;
+        }
+        revealed[start] = true;
+        revealedCount++;
+        var top = 0;
+        stack[top++] = start;
+        while (top > 0) {
+            var i = stack[--top];
+            if (counts[i] != 0) {
+                continue;
+            }
+            for (int k = table.start(i); k < table.end(i); k++) {
+                var nb = table.at(k);
+                if (!revealed[nb]) {
+                    revealed[nb] = true;
+                    revealedCount++;
+                    stack[top++] = nb;
+                }
+            }
+        }
+    }
+
+    /**
+     * The {@link edu.psu.ist.TileType#code()} of {@code row,col} as a player
+     * sees it: the count once revealed, hidden otherwise.
+     */
+    int playerCode(int row, int col) {
+        var i = row * dim + col;
+        return revealed[i] ? counts[i] : -2;
+    }
+
+    boolean cleared() {
+        return revealedCount == dim * dim - mineCount;
+    }
+
+    /** Renders the (unplayed) candidate in the {@code .swp} text format. */
+    String[] rowsAsText() {
+        var rows = new String[dim];
+        var sb = new StringBuilder(dim);
+        for (int r = 0; r < dim; r++) {
+            sb.setLength(0);
+            for (int c = 0; c < dim; c++) {
+                sb.append(mines[r * dim + c] ? '*' : '_');
+            }
+            rows[r] = sb.toString();
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,29 @@
+package edu.psu.ist.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event emitted for each fold over the board (see
+ * {@link edu.psu.ist.SquareBoard#compute}).
+ */
+@Name("edu.psu.ist.BoardCompute")
+@Label("Board Compute")
+@Category({"Minesweeper", "Board"})
+@Description("A full left-fold over every tile of the board")
+@Enabled(false)
+@StackTrace(false)
+@Threshold("0 ms")
+public final class BoardComputeEvent extends jdk.jfr.Event {
+
+    @Label("Board Dimension")
+    public int dimension;
+
+    @Label("Cells Touched")
+    public int cellsTouched;
+}
@@ -0,0 +1,36 @@
+package edu.psu.ist.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event emitted when a board is loaded from a file (see
+ * {@link edu.psu.ist.Cli#loadFromFile(String)}).
+ */
+@Name("edu.psu.ist.BoardLoad")
+@Label("Board Load")
+@Category({"Minesweeper", "IO"})
+@Description("Reading, parsing and validating a board file")
+@Enabled(false)
+@StackTrace(false)
+@Threshold("0 ms")
+public final class BoardLoadEvent extends jdk.jfr.Event {
+
+    @Label("File")
+    public String fileName;
+
+    @Label("Loaded")
+    @Description("False if the file could not be read or failed validation")
+    public boolean loaded;
+
+    @Label("Board Dimension")
+    public int dimension;
+
+    @Label("Cells Touched")
+    public int cellsTouched;
+}
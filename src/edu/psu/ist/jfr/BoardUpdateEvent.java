@@ -0,0 +1,29 @@
+package edu.psu.ist.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event emitted each time a new (updated) copy of a
+ * {@link edu.psu.ist.SquareBoard} is produced.
+ */
+@Name("edu.psu.ist.BoardUpdate")
+@Label("Board Update")
+@Category({"Minesweeper", "Board"})
+@Description("Copy-on-write update of one or more board tiles")
+@Enabled(false)
+@StackTrace(false)
+@Threshold("0 ms")
+public final class BoardUpdateEvent extends jdk.jfr.Event {
+
+    @Label("Board Dimension")
+    public int dimension;
+
+    @Label("Cells Touched")
+    public int cellsTouched;
+}
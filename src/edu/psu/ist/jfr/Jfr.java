@@ -0,0 +1,23 @@
+package edu.psu.ist.jfr;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Decides whether the engine's flight recorder events are worth creating.
+ * <p>
+ * Merely loading a {@code jdk.jfr.Event} subclass makes the jvm set up
+ * jfr's event metadata -- a few hundred milliseconds, most of the cli's
+ * startup -- even when nothing is recording. So every event site checks
+ * {@link #isActive()} first, and the event classes stay unloaded until a
+ * recording has been started (on the command line, via jcmd or the
+ * {@code Recording} api).
+ */
+public final class Jfr {
+
+    private Jfr() {}
+
+    /** Returns true once flight recorder has been started in this jvm. */
+    public static boolean isActive() {
+        return FlightRecorder.isInitialized();
+    }
+}
@@ -0,0 +1,42 @@
+package edu.psu.ist.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event emitted for each {@code revealSquare} and
+ * {@code advanceGame} call on a {@link edu.psu.ist.MinesweeperGame}.
+ * <p>
+ * Disabled by default -- turn it on via the {@code minesweeper.jfc} profile
+ * (or any settings file naming {@code edu.psu.ist.Move}).
+ */
+@Name("edu.psu.ist.Move")
+@Label("Move")
+@Category({"Minesweeper", "Game"})
+@Description("A reveal or advance of a single square")
+@Enabled(false)
+@StackTrace(false)
+@Threshold("0 ms")
+public final class MoveEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Row")
+    public int row;
+
+    @Label("Column")
+    public int col;
+
+    @Label("Board Dimension")
+    public int dimension;
+
+    @Label("Cells Touched")
+    @Description("Number of board cells read or written by the operation")
+    public int cellsTouched;
+}
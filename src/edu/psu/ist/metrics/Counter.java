@@ -0,0 +1,33 @@
+package edu.psu.ist.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count backed by a (striped) {@link LongAdder}
+ * so that many threads can bump it without contending on a single cell.
+ */
+public final class Counter {
+
+    private final String name;
+    private final LongAdder adder = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public void increment() {
+        adder.increment();
+    }
+
+    public void add(long n) {
+        adder.add(n);
+    }
+
+    public long count() {
+        return adder.sum();
+    }
+}
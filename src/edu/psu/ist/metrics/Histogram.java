@@ -0,0 +1,114 @@
+package edu.psu.ist.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-bucket, log-linear histogram of non-negative {@code long} values.
+ * <p>
+ * Values below {@link #SubBuckets} get an exact bucket each; above that, each
+ * power of two is split into {@link #SubBuckets} equally sized (linear)
+ * buckets. So any recorded value lands in a bucket whose upper bound is
+ * within 12.5% of the value itself, and the whole {@code long} range fits in
+ * a few hundred buckets allocated up front -- recording is a couple of bit
+ * operations and one (striped) {@link LongAdder} increment.
+ */
+public final class Histogram {
+
+    /** How values of a histogram should be displayed. */
+    public enum Unit {Nanos, Bytes, Count}
+
+    private static final int SubBucketBits = 3;
+    static final int SubBuckets = 1 << SubBucketBits;
+    private static final int BucketCount = (Long.SIZE - SubBucketBits + 1) * SubBuckets;
+
+    private final String name;
+    private final Unit unit;
+    private final LongAdder[] buckets = new LongAdder[BucketCount];
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    Histogram(String name, Unit unit) {
+        this.name = name;
+        this.unit = unit;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Unit unit() {
+        return unit;
+    }
+
+    /** Records {@code value} (negative values are clamped to 0). */
+    public void record(long value) {
+        var v = Math.max(value, 0);
+        buckets[bucketIndex(v)].increment();
+        total.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        var n = count();
+        return n == 0 ? 0.0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Returns an upper bound on the {@code p}-th percentile of the recorded
+     * values (where {@code 0 < p <= 100}), or 0 if nothing was recorded.
+     */
+    public long percentile(double p) {
+        long[] counts = new long[buckets.length];
+        long n = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+            n += counts[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        var target = (long) Math.ceil(n * (p / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(bucketUpperBound(i), max());
+            }
+        }
+        return max();
+    }
+
+    static int bucketIndex(long v) {
+        if (v < SubBuckets) {
+            return (int) v;
+        }
+        var exp = 63 - Long.numberOfLeadingZeros(v);
+        var sub = (int) ((v >>> (exp - SubBucketBits)) & (SubBuckets - 1));
+        return (exp - SubBucketBits + 1) * SubBuckets + sub;
+    }
+
+    static long bucketUpperBound(int idx) {
+        var group = idx / SubBuckets;
+        var sub = idx % SubBuckets;
+        if (group == 0) {
+            return sub;
+        }
+        var shift = group - 1;
+        var bound = ((long) (SubBuckets + sub + 1) << shift) - 1;
+        return bound < 0 ? Long.MAX_VALUE : bound; // top bucket overflows
+    }
+}
@@ -0,0 +1,133 @@
+package edu.psu.ist.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A lightweight, in-process registry of named {@link Counter}s and
+ * {@link Histogram}s.
+ * <p>
+ * Metrics are created on first use and live for the lifetime of the
+ * registry; hot paths should look them up once (e.g., into a
+ * {@code static final} field) rather than per call.
+ */
+public final class Metrics {
+
+    private static final Metrics Global = new Metrics();
+
+    private static final com.sun.management.ThreadMXBean Threads =
+            ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean t
+                    && t.isThreadAllocatedMemorySupported() ? t : null;
+
+    private final long startNanos = System.nanoTime();
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /** The process-wide registry the game engine and cli report into. */
+    public static Metrics global() {
+        return Global;
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    public Histogram histogram(String name, Histogram.Unit unit) {
+        return histograms.computeIfAbsent(name, n -> new Histogram(n, unit));
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the calling thread, or
+     * {@code -1} if the jvm doesn't support allocation accounting.
+     */
+    public static long threadAllocatedBytes() {
+        return Threads == null ? -1 : Threads.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Renders every metric in the registry (sorted by name): counters along
+     * with their average rate since the registry was created, histograms with
+     * their count, mean and p50/p90/p99/max.
+     */
+    public String render() {
+        var uptimeSecs = Math.max((System.nanoTime() - startNanos) / 1e9, 1e-9);
+        var sb = new StringBuilder(String.format("uptime: %.1fs", uptimeSecs));
+
+        for (var c : new TreeMap<>(counters).values()) {
+            sb.append(String.format("%n%s: %d (%.1f/s)",
+                    c.name(), c.count(), c.count() / uptimeSecs));
+        }
+        for (var h : new TreeMap<>(histograms).values()) {
+            sb.append(String.format("%n%s: n=%d mean=%s p50=%s p90=%s p99=%s max=%s",
+                    h.name(), h.count(),
+                    format(h.unit(), h.mean()),
+                    format(h.unit(), h.percentile(50)),
+                    format(h.unit(), h.percentile(90)),
+                    format(h.unit(), h.percentile(99)),
+                    format(h.unit(), h.max())));
+        }
+        return sb.toString();
+    }
+
+    private static String format(Histogram.Unit unit, double v) {
+        return switch (unit) {
+            case Nanos -> String.format("%.1fus", v / 1_000.0);
+            case Bytes -> String.format("%.0fB", v);
+            case Count -> String.format("%.1f", v);
+        };
+    }
+
+    /**
+     * Appends a timestamped {@link #render()} of this registry to
+     * {@code file} every {@code period} on a (daemon) background thread.
+     * Close the returned handle to stop dumping (and end the thread).
+     *
+     * @throws IllegalArgumentException if {@code period} is under a millisecond.
+     */
+    public PeriodicDump dumpPeriodically(Path file, Duration period) {
+        if (period.toMillis() < 1) {
+            throw new IllegalArgumentException("dump period must be at least 1ms, got " + period);
+        }
+        ScheduledExecutorService exec = Executors.newSingleThreadScheduledExecutor(r -> {
+            var t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        var millis = period.toMillis();
+        var task = exec.scheduleAtFixedRate(() -> dump(file), millis, millis, TimeUnit.MILLISECONDS);
+        return () -> {
+            task.cancel(false);
+            exec.shutdown();
+        };
+    }
+
+    /** A running {@link #dumpPeriodically} dump; closing it stops the dumps. */
+    public interface PeriodicDump extends AutoCloseable {
+        @Override void close();
+    }
+
+    /**
+     * Appends a timestamped {@link #render()} to {@code file}; a failed write
+     * is reported on stderr (rather than thrown) so that a periodic dump
+     * keeps going.
+     */
+    public void dump(Path file) {
+        var text = String.format("--- %s%n%s%n", Instant.now(), render());
+        try {
+            Files.writeString(file, text,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("metrics dump failed: " + e.getMessage());
+        }
+    }
+}
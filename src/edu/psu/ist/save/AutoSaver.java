@@ -0,0 +1,337 @@
+package edu.psu.ist.save;
+
+import edu.psu.ist.SquareBoard;
+import edu.psu.ist.Topology;
+import edu.psu.ist.events.BoardDelta;
+import edu.psu.ist.immutableadts.Pair;
+import edu.psu.ist.immutableadts.Result;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Write-behind autosave for a game: subscribe it to
+ * {@link edu.psu.ist.MinesweeperGame#deltas()} (or {@link #offer} boards
+ * directly) and the boards are written by a background thread -- a move
+ * never waits on the disk.
+ * <p>
+ * Boards are immutable, so handing one over is just publishing a
+ * reference: the writer always saves the <em>latest</em> board offered,
+ * so a burst of moves arriving while a write is in progress costs a
+ * single further write.
+ * <p>
+ * Each save is written to a temp file, forced to disk and then atomically
+ * published as {@code <name>.<generation>.swpsave} under the next
+ * generation no other session has claimed; the newest
+ * {@code generations} saves are kept. A save is a header line -- format
+ * version, topology and the crc32 of the board text -- followed by the
+ * board in the {@code .swp} format, so a torn or corrupted file is
+ * detected (and skipped) by {@link #loadLatest}.
+ * <p>
+ * When the game ends, {@link #finish} writes its final board marked as
+ * finished, so {@link #loadLatest} won't offer to resume it.
+ */
+public final class AutoSaver implements Flow.Subscriber<BoardDelta>, AutoCloseable {
+
+    public static final String Extension = ".swpsave";
+    public static final int DefaultGenerations = 3;
+    private static final String Magic = "swpsave1";
+    private static final String Finished = "finished";
+
+    private final Path dir;
+    private final String name;
+    private final int generations;
+    private final Thread writer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private SquareBoard pending;  // latest board not yet written (guarded by lock)
+    private boolean finished = false; // the game is over: pending is its final board
+    private long offered = 0;     // boards offered so far
+    private long saved = 0;       // ...and how many of those the disk has caught up with
+    private long writes = 0;
+    private long generation = -1; // newest on disk; found by the first write (writer thread only)
+    private boolean closed = false;
+
+    public AutoSaver(Path dir, String name, int generations) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.name = name;
+        this.generations = Math.max(1, generations);
+        this.writer = Thread.ofPlatform().daemon().name("autosave-" + name).start(this::writeLoop);
+    }
+
+    /**
+     * Queues {@code board} to be saved (replacing any board still queued);
+     * ignored once the game is {@link #finish finished}.
+     */
+    public void offer(SquareBoard board) {
+        lock.lock();
+        try {
+            if (finished) {
+                return;
+            }
+            pending = board;
+            offered++;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override public void onNext(BoardDelta delta) {
+        offer(delta.board());
+    }
+
+    @Override public void onError(Throwable t) {
+        System.err.println("autosave: game publisher failed: " + t.getMessage());
+    }
+
+    @Override public void onComplete() {}
+
+    /** Returns how many saves have been written successfully (after coalescing). */
+    public long writes() {
+        lock.lock();
+        try {
+            return writes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Blocks until every board offered so far is (superseded by one) on disk. */
+    public void flush() throws InterruptedException {
+        lock.lock();
+        try {
+            while (saved < offered && writer.isAlive()) {
+                changed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Saves {@code last} as the final board of a game that has been won or
+     * lost (replacing any board still queued), then closes the saver.
+     */
+    public void finish(SquareBoard last) {
+        lock.lock();
+        try {
+            if (!finished) {
+                finished = true;
+                pending = last;
+                offered++;
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        close();
+    }
+
+    /**
+     * Flushes outstanding saves, then stops the writer. If interrupted, it
+     * stops waiting (the daemon writer finishes the save in flight on its
+     * own) and keeps the thread's interrupt status set.
+     */
+    @Override public void close() {
+        try {
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            closed = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            SquareBoard board;
+            boolean last;
+            long upTo;
+            lock.lock();
+            try {
+                while (pending == null && !closed) {
+                    changed.awaitUninterruptibly();
+                }
+                if (pending == null) {
+                    return;
+                }
+                board = pending;
+                last = finished;
+                upTo = offered;
+                pending = null;
+            } finally {
+                lock.unlock();
+            }
+            var written = false;
+            try {
+                write(board, last);
+                written = true;
+            } catch (IOException e) {
+                System.err.println("autosave failed: " + e.getMessage());
+            }
+            lock.lock();
+            try {
+                saved = upTo;
+                writes += written ? 1 : 0;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void write(SquareBoard board, boolean last) throws IOException {
+        var text = board.toString().replace(" ", "") + "\n";
+        var header = header(board.topology(), text) + (last ? " " + Finished : "");
+        var bytes = (header + "\n" + text).getBytes(StandardCharsets.US_ASCII);
+        var tmp = Files.createTempFile(dir, name, ".tmp"); // (unique: other sessions may share dir)
+        try {
+            try (var ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                var buf = ByteBuffer.wrap(bytes);
+                while (buf.hasRemaining()) {
+                    ch.write(buf);
+                }
+                ch.force(true);
+            }
+            if (generation < 0) { // (scanned here, off the caller's thread)
+                generation = saves(dir, name).stream().mapToLong(AutoSaver::generationOf).max().orElse(0);
+            }
+            while (!claim(tmp, dir.resolve(name + "." + (generation + 1) + Extension))) {
+                generation++; // taken by another session: try the next one
+            }
+            generation++;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        var all = saves(dir, name);
+        for (int i = generations; i < all.size(); i++) {
+            Files.deleteIfExists(all.get(i));
+        }
+    }
+
+    // publishes tmp as target unless target already exists (never replacing
+    // it): a hard link is created atomically, else a plain move checks first
+    private static boolean claim(Path tmp, Path target) throws IOException {
+        try {
+            try {
+                Files.createLink(target, tmp);
+            } catch (UnsupportedOperationException e) {
+                Files.move(tmp, target);
+            }
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        }
+    }
+
+    private static String header(Topology topology, String text) {
+        var crc = new CRC32();
+        crc.update(text.getBytes(StandardCharsets.US_ASCII));
+        return Magic + " " + topology.name() + " " + Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * Loads the newest save of {@code name} in {@code dir} that is intact,
+     * falling back to older generations if the newest ones are damaged --
+     * unless that save is the end of a finished game.
+     */
+    public static Result<SquareBoard, String> loadLatest(Path dir, String name) {
+        try {
+            for (var f : saves(dir, name)) {
+                if (readSave(f) instanceof Result.Ok(Pair(var board, var over))) {
+                    return over ? Result.err("the game saved as '" + name + "' is over") : Result.ok(board);
+                }
+            }
+            return Result.err("no intact save of '" + name + "' in " + dir);
+        } catch (IOException e) {
+            return Result.err(e.getMessage());
+        }
+    }
+
+    /** Reads a single save file, verifying its header and checksum. */
+    public static Result<SquareBoard, String> read(Path file) {
+        return readSave(file).map(Pair::first);
+    }
+
+    // a save's board, and whether it ends a finished game
+    private static Result<Pair<SquareBoard, Boolean>, String> readSave(Path file) {
+        try {
+            var content = Files.readString(file, StandardCharsets.US_ASCII);
+            var newline = content.indexOf('\n');
+            var header = newline < 0 ? new String[0] : content.substring(0, newline).split(" ");
+            var over = header.length == 4 && header[3].equals(Finished);
+            if ((header.length != 3 && !over) || !header[0].equals(Magic)) {
+                return Result.err(file + ": not a save file");
+            }
+            var text = content.substring(newline + 1);
+            var topology = Topology.valueOf(header[1]);
+            if (!header(topology, text).equals(String.join(" ", header[0], header[1], header[2]))) {
+                return Result.err(file + ": checksum mismatch");
+            }
+            var builder = new SquareBoard.ValidatingBoardBuilder().topology(topology);
+            text.lines().forEach(builder::row);
+            return builder.build().map(b -> Pair.of(b, over));
+        } catch (IOException | IllegalArgumentException e) {
+            return Result.err(file + ": " + e.getMessage());
+        }
+    }
+
+    // the saves of name in dir, newest first
+    private static ArrayList<Path> saves(Path dir, String name) throws IOException {
+        var result = new ArrayList<Path>();
+        if (!Files.isDirectory(dir)) {
+            return result;
+        }
+        try (var files = Files.newDirectoryStream(dir, name + ".*" + Extension)) {
+            for (var f : files) {
+                if (generationOf(f) > 0) {
+                    result.add(f);
+                }
+            }
+        }
+        result.sort(Comparator.comparingLong(AutoSaver::generationOf).reversed());
+        return result;
+    }
+
+    // the generation of a <name>.<generation>.swpsave file (0 if malformed)
+    private static long generationOf(Path f) {
+        var s = f.getFileName().toString();
+        s = s.substring(0, s.length() - Extension.length());
+        try {
+            return Long.parseLong(s.substring(s.lastIndexOf('.') + 1));
+        } catch (NumberFormatException | IndexOutOfBoundsException _) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package edu.psu.ist.scoring;
+
+import edu.psu.ist.Cli;
+import edu.psu.ist.immutableadts.Result;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores every {@code .swp} board file in a directory in parallel and writes
+ * the results to one summary csv (one row per file, sorted by file name).
+ * <p>
+ * Files are streamed from the directory listing onto a bounded work queue
+ * -- when the queue is full, the listing thread scores a board itself --
+ * so memory stays flat no matter how many boards the directory holds, and
+ * since boards are scored independently, throughput scales with the
+ * number of worker threads.
+ */
+public final class BatchScorer {
+
+    private BatchScorer() {}
+
+    /**
+     * Scores the boards in {@code dir} on {@code threads} workers, writing the
+     * csv to {@code csvOut}. Returns the number of files processed (boards
+     * that fail to load get a row with an error message), or an error if the
+     * directory can't be listed or the csv can't be written.
+     */
+    public static Result<Integer, String> scoreDirectory(Path dir, Path csvOut, int threads) {
+        var rows = new ConcurrentLinkedQueue<String[]>(); // (file name, csv row)
+        var pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4), new ThreadPoolExecutor.CallerRunsPolicy());
+        try (var files = Files.newDirectoryStream(dir, "*.swp")) {
+            for (var file : files) {
+                pool.execute(() -> rows.add(new String[]{
+                        file.getFileName().toString(), scoreFile(file)}));
+            }
+        } catch (IOException e) {
+            return Result.err("can't list " + dir + ": " + e.getMessage());
+        } finally {
+            pool.shutdown();
+            awaitQuietly(pool);
+        }
+
+        var sorted = new ArrayList<>(rows);
+        sorted.sort((a, b) -> a[0].compareTo(b[0]));
+        var lines = new ArrayList<String>(sorted.size() + 1);
+        lines.add("file," + BoardScore.csvHeader() + ",error");
+        for (var row : sorted) {
+            lines.add(row[0] + "," + row[1]);
+        }
+        try {
+            Files.write(csvOut, lines);
+        } catch (IOException e) {
+            return Result.err("can't write " + csvOut + ": " + e.getMessage());
+        }
+        return Result.ok(sorted.size());
+    }
+
+    private static String scoreFile(Path file) {
+        return switch (Cli.loadFromFile(file.toString())) {
+            case Result.Ok(var board) -> BoardScorer.score(board).toCsv() + ",";
+            case Result.Err(var msg) -> ",,,,,," + msg.replaceAll("[,\\r\\n]+", " ");
+        };
+    }
+
+    private static void awaitQuietly(ThreadPoolExecutor pool) {
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting: every submitted board gets scored
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package edu.psu.ist.scoring;
+
+import java.util.Locale;
+
+/**
+ * Difficulty measures of a board:
+ * <ul>
+ *     <li>{@code openings}: regions that a single click on a zero uncovers</li>
+ *     <li>{@code isolatedNumbers}: non-mine, non-zero cells that border no
+ *     opening (so each needs a click of its own)</li>
+ *     <li>{@code bbbv}: the "3BV" -- the minimum number of clicks needed to
+ *     clear the board, i.e. {@code openings + isolatedNumbers}</li>
+ * </ul>
+ */
+public record BoardScore(int dimension, int mines, int openings,
+                         int isolatedNumbers, int bbbv) {
+
+    public double mineDensity() {
+        return dimension == 0 ? 0.0 : (double) mines / (dimension * dimension);
+    }
+
+    public static String csvHeader() {
+        return "dimension,mines,density,openings,isolated,3bv";
+    }
+
+    // (Locale.ROOT: a comma decimal separator would add a column)
+    public String toCsv() {
+        return String.format(Locale.ROOT, "%d,%d,%.4f,%d,%d,%d",
+                dimension, mines, mineDensity(), openings, isolatedNumbers, bbbv);
+    }
+}
@@ -0,0 +1,43 @@
+package edu.psu.ist.scoring;
+
+import edu.psu.ist.NeighbourTable;
+import edu.psu.ist.OpeningIndex;
+import edu.psu.ist.SquareBoard;
+
+/**
+ * Computes the {@link BoardScore} of a board from its mine layout (uncovered
+ * tiles on the board are ignored -- the score is that of the fresh board).
+ */
+public final class BoardScorer {
+
+    private BoardScorer() {}
+
+    public static BoardScore score(SquareBoard board) {
+        var dim = board.dimension();
+        var index = board.openings();
+        var table = board.neighbours();
+        var mines = 0;
+        var isolated = 0;
+        for (int r = 0; r < dim; r++) {
+            for (int c = 0; c < dim; c++) {
+                if (board.tileAt(r, c).isMine()) {
+                    mines++;
+                } else if (index.openingAt(r, c) < 0 && !bordersOpening(index, table, r * dim + c)) {
+                    isolated++;
+                }
+            }
+        }
+        return new BoardScore(dim, mines, index.openingCount(), isolated,
+                index.openingCount() + isolated);
+    }
+
+    private static boolean bordersOpening(OpeningIndex index, NeighbourTable table, int cell) {
+        var dim = table.dimension();
+        for (int i = table.start(cell); i < table.end(cell); i++) {
+            if (index.openingAt(table.at(i) / dim, table.at(i) % dim) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
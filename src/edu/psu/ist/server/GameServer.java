@@ -0,0 +1,260 @@
+package edu.psu.ist.server;
+
+import edu.psu.ist.MinesweeperGame;
+import edu.psu.ist.TileType;
+import edu.psu.ist.generator.RandomBoards;
+import edu.psu.ist.metrics.Histogram;
+import edu.psu.ist.metrics.Metrics;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hosts many independent {@link MinesweeperGame} sessions over a simple
+ * line-based tcp protocol (one request line, one response line):
+ * <pre>
+ *     NEW dim mines seed   -> OK id
+ *     MOVE id row col      -> OK count | WIN count | LOSE    (0-indexed)
+ *     FLAG id row col      -> OK                       (toggles a flag)
+ *     CHORD id row col     -> OK uncovered | WIN uncovered | LOSE
+ *     SHOW id              -> OK row/row/...
+ *     END id               -> OK
+ *     anything else        -> ERR message
+ * </pre>
+ * Each connection is served by its own virtual thread (so thousands of
+ * mostly idle connections cost little more than their sockets); sessions
+ * live in a shared {@link SessionTable} -- a connection may drive any
+ * number of them -- and are evicted once idle for too long. Closing the
+ * server also closes every open connection.
+ */
+public final class GameServer implements AutoCloseable {
+
+    private static final Histogram RequestLatency =
+            Metrics.global().histogram("server.request.latency", Histogram.Unit.Nanos);
+
+    /** Largest board a client may ask for. */
+    public static final int MaxDimension = 1024;
+
+    /**
+     * The undo history budget of each session's game: the protocol has no
+     * undo, so sessions only keep the minimum (rather than
+     * {@link edu.psu.ist.GameHistory#DefaultMaxBytes} apiece).
+     */
+    static final long SessionHistoryBytes = 16L << 10;
+
+    private final ServerSocket socket;
+    private final SessionTable sessions;
+    private final ScheduledExecutorService evictor;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+
+    private GameServer(ServerSocket socket, Duration idleTimeout) {
+        this.socket = socket;
+        this.sessions = new SessionTable(idleTimeout);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            var t = new Thread(r, "session-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        var period = Math.max(1, idleTimeout.toMillis() / 2);
+        evictor.scheduleAtFixedRate(sessions::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        this.acceptor = Thread.ofVirtual().name("acceptor").start(this::acceptLoop);
+    }
+
+    /**
+     * Starts a server on {@code port} of the loopback interface (0 picks a
+     * free port -- see {@link #port()}).
+     */
+    public static GameServer start(int port, Duration idleTimeout) throws IOException {
+        var socket = new ServerSocket();
+        socket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        return new GameServer(socket, idleTimeout);
+    }
+
+    public int port() {
+        return socket.getLocalPort();
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    /** Blocks until the server is closed. */
+    public void awaitClose() throws InterruptedException {
+        acceptor.join();
+    }
+
+    @Override public void close() throws IOException {
+        evictor.shutdownNow();
+        socket.close();
+        for (var conn : connections) {
+            conn.close(); // unblocks (and so ends) the connection's thread
+        }
+    }
+
+    private void acceptLoop() {
+        while (!socket.isClosed()) {
+            try {
+                var conn = socket.accept();
+                connections.add(conn);
+                if (socket.isClosed()) {
+                    conn.close(); // raced with close()
+                }
+                Thread.ofVirtual().start(() -> serve(conn));
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    System.err.println("accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket conn) {
+        try (conn;
+             var in = new BufferedReader(new InputStreamReader(conn.getInputStream(), StandardCharsets.US_ASCII));
+             var out = new BufferedWriter(new OutputStreamWriter(conn.getOutputStream(), StandardCharsets.US_ASCII))) {
+            conn.setTcpNoDelay(true);
+            String line;
+            while ((line = in.readLine()) != null) {
+                var start = System.nanoTime();
+                out.write(handle(line));
+                out.write('\n');
+                out.flush();
+                RequestLatency.record(System.nanoTime() - start);
+            }
+        } catch (IOException e) {
+            // client went away; its sessions stay until they idle out
+        } finally {
+            connections.remove(conn);
+        }
+    }
+
+    /** Handles a single request line, returning the response line. */
+    String handle(String line) {
+        var parts = line.trim().split("\\s+");
+        try {
+            // dispatch on: command/argument count
+            return switch (parts[0].toUpperCase() + "/" + (parts.length - 1)) {
+                case "NEW/3" -> newSession(
+                        Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Long.parseLong(parts[3]));
+                case "MOVE/3" -> move(
+                        Long.parseLong(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+                case "FLAG/3" -> flag(
+                        Long.parseLong(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+                case "CHORD/3" -> chord(
+                        Long.parseLong(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+                case "SHOW/1" -> show(Long.parseLong(parts[1]));
+                case "END/1" -> {
+                    sessions.remove(Long.parseLong(parts[1]));
+                    yield "OK";
+                }
+                default -> "ERR unrecognized request: " + line;
+            };
+        } catch (NumberFormatException e) {
+            return "ERR expected a number: " + e.getMessage();
+        }
+    }
+
+    private String newSession(int dim, int mines, long seed) {
+        if (dim < 1 || dim > MaxDimension || mines < 0 || mines >= dim * dim) {
+            return "ERR bad board size";
+        }
+        var s = sessions.create(new MinesweeperGame(RandomBoards.random(dim, mines, seed), SessionHistoryBytes));
+        return "OK " + s.id;
+    }
+
+    private String move(long id, int row, int col) {
+        var found = sessions.get(id);
+        if (found.isEmpty()) {
+            return "ERR no such session: " + id;
+        }
+        var s = found.get();
+        synchronized (s) {
+            var dim = s.game.dimension();
+            if (s.over) {
+                return "ERR game over";
+            }
+            if (row < 0 || col < 0 || row >= dim || col >= dim) {
+                return "ERR out of bounds";
+            }
+            return switch (s.game.revealSquare(row, col)) {
+                case TileType.Mine _ -> {
+                    s.over = true;
+                    yield "LOSE";
+                }
+                case TileType.Uncovered(var ct) -> {
+                    s.game.advanceGame(row, col);
+                    s.over = s.game.inWinState();
+                    yield (s.over ? "WIN " : "OK ") + ct;
+                }
+                default -> "ERR can't reveal " + row + "," + col;
+            };
+        }
+    }
+
+    private String flag(long id, int row, int col) {
+        var found = sessions.get(id);
+        if (found.isEmpty()) {
+            return "ERR no such session: " + id;
+        }
+        var s = found.get();
+        synchronized (s) {
+            var dim = s.game.dimension();
+            if (s.over) {
+                return "ERR game over";
+            }
+            if (row < 0 || col < 0 || row >= dim || col >= dim) {
+                return "ERR out of bounds";
+            }
+            return s.game.toggleFlag(row, col) ? "OK" : "ERR can't flag " + row + "," + col;
+        }
+    }
+
+    private String chord(long id, int row, int col) {
+        var found = sessions.get(id);
+        if (found.isEmpty()) {
+            return "ERR no such session: " + id;
+        }
+        var s = found.get();
+        synchronized (s) {
+            var dim = s.game.dimension();
+            if (s.over) {
+                return "ERR game over";
+            }
+            if (row < 0 || col < 0 || row >= dim || col >= dim) {
+                return "ERR out of bounds";
+            }
+            var uncovered = s.game.chord(row, col);
+            if (uncovered < 0) {
+                s.over = true;
+                return "LOSE";
+            }
+            s.over = s.game.inWinState();
+            return (s.over ? "WIN " : "OK ") + uncovered;
+        }
+    }
+
+    private String show(long id) {
+        return sessions.get(id)
+                .map(s -> {
+                    synchronized (s) {
+                        return "OK " + s.game.toString().replace(" ", "").replace('\n', '/');
+                    }
+                })
+                .orElse("ERR no such session: " + id);
+    }
+}
@@ -0,0 +1,113 @@
+package edu.psu.ist.server;
+
+import edu.psu.ist.metrics.Histogram;
+import edu.psu.ist.metrics.Metrics;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A local load generator for {@link GameServer}: opens {@code sessions}
+ * concurrent connections (one virtual thread each), starts a game on each
+ * and plays {@code movesPerSession} random moves (starting a new game after
+ * every win or loss), recording the round-trip latency of every move.
+ */
+public final class LoadGenerator {
+
+    /** The outcome of a run; latencies are in nanoseconds. */
+    public record Report(long moves, long errors, double seconds, long p50, long p99, long max) {
+        @Override public String toString() {
+            return String.format("moves: %d (%.0f/s), errors: %d, p50: %.1fus, p99: %.1fus, max: %.1fus",
+                    moves, moves / seconds, errors, p50 / 1e3, p99 / 1e3, max / 1e3);
+        }
+    }
+
+    private LoadGenerator() {}
+
+    public static Report run(String host, int port, int sessions, int movesPerSession,
+                             int dim, int mines) throws InterruptedException {
+        var latency = new Metrics().histogram("loadgen.move.latency", Histogram.Unit.Nanos);
+        var errors = new LongAdder();
+        var ready = new CountDownLatch(sessions);
+        var go = new CountDownLatch(1);
+        var clients = new ArrayList<Thread>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            var seed = i;
+            clients.add(Thread.ofVirtual().start(() ->
+                    client(host, port, seed, movesPerSession, dim, mines, latency, errors, ready, go)));
+        }
+        ready.await(); // every client connected with a game going: now measure
+        var start = System.nanoTime();
+        go.countDown();
+        for (var c : clients) {
+            c.join();
+        }
+        var secs = Math.max((System.nanoTime() - start) / 1e9, 1e-9);
+        return new Report(latency.count(), errors.sum(), secs,
+                latency.percentile(50), latency.percentile(99), latency.max());
+    }
+
+    private static void client(String host, int port, long seed, int moves, int dim, int mines,
+                               Histogram latency, LongAdder errors,
+                               CountDownLatch ready, CountDownLatch go) {
+        var rnd = new SplittableRandom(seed);
+        var counted = false;
+        try (var sock = new Socket(host, port);
+             var in = new BufferedReader(new InputStreamReader(sock.getInputStream(), StandardCharsets.US_ASCII));
+             var out = new BufferedWriter(new OutputStreamWriter(sock.getOutputStream(), StandardCharsets.US_ASCII))) {
+            sock.setTcpNoDelay(true);
+            var id = newGame(in, out, dim, mines, rnd.nextLong());
+            ready.countDown();
+            counted = true;
+            go.await();
+            for (int m = 0; m < moves; m++) {
+                var start = System.nanoTime();
+                var reply = request(in, out, "MOVE " + id + " " + rnd.nextInt(dim) + " " + rnd.nextInt(dim));
+                latency.record(System.nanoTime() - start);
+                if (reply.startsWith("ERR")) {
+                    errors.increment();
+                }
+                if (reply.startsWith("WIN") || reply.startsWith("LOSE")) {
+                    request(in, out, "END " + id);
+                    id = newGame(in, out, dim, mines, rnd.nextLong());
+                }
+            }
+            request(in, out, "END " + id);
+        } catch (IOException | InterruptedException e) {
+            errors.increment();
+        } finally {
+            if (!counted) {
+                ready.countDown();
+            }
+        }
+    }
+
+    private static String newGame(BufferedReader in, BufferedWriter out,
+                                  int dim, int mines, long seed) throws IOException {
+        var reply = request(in, out, "NEW " + dim + " " + mines + " " + seed);
+        if (!reply.startsWith("OK ")) {
+            throw new IOException("can't start a game: " + reply);
+        }
+        return reply.substring(3);
+    }
+
+    private static String request(BufferedReader in, BufferedWriter out, String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+        out.flush();
+        var reply = in.readLine();
+        if (reply == null) {
+            throw new IOException("server closed the connection");
+        }
+        return reply;
+    }
+}
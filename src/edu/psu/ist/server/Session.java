@@ -0,0 +1,29 @@
+package edu.psu.ist.server;
+
+import edu.psu.ist.MinesweeperGame;
+
+/**
+ * One hosted game. A {@link MinesweeperGame} isn't thread safe, so every
+ * request against a session runs while holding the session's monitor.
+ */
+final class Session {
+
+    final long id;
+    final MinesweeperGame game;
+    boolean over;
+    private volatile long lastTouchedNanos;
+
+    Session(long id, MinesweeperGame game) {
+        this.id = id;
+        this.game = game;
+        touch();
+    }
+
+    void touch() {
+        lastTouchedNanos = System.nanoTime();
+    }
+
+    long idleNanos(long now) {
+        return now - lastTouchedNanos;
+    }
+}
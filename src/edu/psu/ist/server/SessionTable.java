@@ -0,0 +1,66 @@
+package edu.psu.ist.server;
+
+import edu.psu.ist.MinesweeperGame;
+import edu.psu.ist.metrics.Counter;
+import edu.psu.ist.metrics.Metrics;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The concurrent table of live {@link Session}s, keyed by session id.
+ * Sessions untouched for longer than the idle timeout are dropped by
+ * {@link #evictIdle()}.
+ */
+final class SessionTable {
+
+    private static final Counter Created = Metrics.global().counter("server.sessions.created");
+    private static final Counter Evicted = Metrics.global().counter("server.sessions.evicted");
+
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final long idleTimeoutNanos;
+
+    SessionTable(Duration idleTimeout) {
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    Session create(MinesweeperGame game) {
+        var s = new Session(nextId.getAndIncrement(), game);
+        sessions.put(s.id, s);
+        Created.increment();
+        return s;
+    }
+
+    Optional<Session> get(long id) {
+        var s = sessions.get(id);
+        if (s != null) {
+            s.touch();
+        }
+        return Optional.ofNullable(s);
+    }
+
+    void remove(long id) {
+        sessions.remove(id);
+    }
+
+    int size() {
+        return sessions.size();
+    }
+
+    /** Drops every session idle for longer than the timeout; returns how many. */
+    int evictIdle() {
+        var now = System.nanoTime();
+        var evicted = 0;
+        for (var it = sessions.values().iterator(); it.hasNext(); ) {
+            if (it.next().idleNanos(now) > idleTimeoutNanos) {
+                it.remove();
+                evicted++;
+            }
+        }
+        Evicted.add(evicted);
+        return evicted;
+    }
+}
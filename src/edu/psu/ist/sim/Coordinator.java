@@ -0,0 +1,180 @@
+package edu.psu.ist.sim;
+
+import edu.psu.ist.metrics.Histogram;
+import edu.psu.ist.metrics.Metrics;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Runs a simulation across several local worker processes (separate jvms,
+ * each with its own heap and gc), one shard of consecutive seeds apiece,
+ * and merges their results.
+ * <p>
+ * Workers stream fixed-size binary {@link GameResult}s back over their
+ * stdout pipes. Since every seed replays identically anywhere, a worker
+ * that dies (or garbles its stream) costs only a relaunch: the seeds it
+ * hadn't reported yet are handed to a fresh worker -- up to
+ * {@link #MaxAttempts} times per shard.
+ */
+public final class Coordinator {
+
+    public static final int MaxAttempts = 3;
+
+    /** How long a destroyed worker gets to exit before it's killed forcibly. */
+    private static final Duration ReapTimeout = Duration.ofSeconds(5);
+
+    /** A range of seeds ({@code firstSeed} onward) played by one worker. */
+    public record Shard(int id, long firstSeed, long count) {}
+
+    /** Starts the worker process that plays {@code shard}. */
+    @FunctionalInterface
+    public interface Launcher {
+        Process launch(Shard shard, int attempt) throws IOException;
+    }
+
+    /**
+     * The merged outcome of a simulation: game/win counts, how many times
+     * shards were reassigned to a new worker and how many were given up on,
+     * and the distribution of per-game latencies across all workers.
+     */
+    public record Report(long games, long wins, int reassigned, int failedShards,
+                         Histogram latency) {
+
+        public double winRate() {
+            return games == 0 ? 0 : (double) wins / games;
+        }
+
+        @Override public String toString() {
+            return String.format("games: %d  wins: %d (%.2f%%)  reassigned shards: %d  failed shards: %d%n"
+                            + "game latency: mean %.1fus  p50 %.1fus  p99 %.1fus  max %.1fus",
+                    games, wins, 100 * winRate(), reassigned, failedShards,
+                    latency.mean() / 1e3, latency.percentile(50) / 1e3,
+                    latency.percentile(99) / 1e3, latency.max() / 1e3);
+        }
+    }
+
+    private final Launcher launcher;
+
+    public Coordinator(Launcher launcher) {
+        this.launcher = launcher;
+    }
+
+    /**
+     * A launcher starting workers with the same java binary, jvm flags
+     * (e.g. {@code --enable-preview}, heap sizes) and classpath as this one.
+     */
+    public static Launcher localJvm(int dim, int mines) {
+        return (shard, _) -> new ProcessBuilder(workerCommand(shard, dim, mines))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    /** The command line of a worker jvm playing {@code shard}. */
+    public static List<String> workerCommand(Shard shard, int dim, int mines) {
+        var cmd = new ArrayList<String>();
+        cmd.add(ProcessHandle.current().info().command().orElse("java"));
+        for (var arg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (!arg.startsWith("-agentlib:jdwp")) { // a debugger port can't be shared
+                cmd.add(arg);
+            }
+        }
+        cmd.addAll(List.of("-cp", System.getProperty("java.class.path"), "edu.psu.ist.Cli", "--sim-worker",
+                "" + dim, "" + mines, "" + shard.firstSeed(), "" + shard.count()));
+        return cmd;
+    }
+
+    /**
+     * Plays seeds {@code firstSeed .. firstSeed + games - 1} split into
+     * {@code workers} shards, each on its own worker process; returns once
+     * every shard has finished or been given up on.
+     */
+    public Report run(int workers, long firstSeed, long games) throws InterruptedException {
+        var latency = new Metrics().histogram("sim.game.latency", Histogram.Unit.Nanos);
+        var played = new LongAdder();
+        var wins = new LongAdder();
+        var reassigned = new AtomicInteger();
+        var failed = new AtomicInteger();
+        var threads = new ArrayList<Thread>();
+        var perShard = (games + workers - 1) / workers;
+        for (int i = 0; i < workers && i * perShard < games; i++) {
+            var shard = new Shard(i, firstSeed + i * perShard, Math.min(perShard, games - i * perShard));
+            threads.add(Thread.ofVirtual().name("shard-" + i).start(() -> {
+                var done = runShard(shard, reassigned, result -> {
+                    played.increment();
+                    if (result.won()) {
+                        wins.increment();
+                    }
+                    latency.record(result.nanos());
+                });
+                if (!done) {
+                    failed.incrementAndGet();
+                }
+            }));
+        }
+        for (var t : threads) {
+            t.join();
+        }
+        return new Report(played.sum(), wins.sum(), reassigned.get(), failed.get(), latency);
+    }
+
+    // returns false if the shard couldn't be completed within MaxAttempts
+    private boolean runShard(Shard shard, AtomicInteger reassigned,
+                             Consumer<GameResult> sink) {
+        var next = shard.firstSeed();
+        var end = shard.firstSeed() + shard.count();
+        for (int attempt = 0; next < end; attempt++) {
+            if (attempt == MaxAttempts) {
+                return false;
+            }
+            if (attempt > 0) {
+                reassigned.incrementAndGet();
+            }
+            Process p = null;
+            try {
+                p = launcher.launch(new Shard(shard.id(), next, end - next), attempt);
+                var in = new DataInputStream(new BufferedInputStream(p.getInputStream()));
+                while (next < end) {
+                    var result = GameResult.read(in);
+                    if (result.seed() != next) {
+                        break; // garbled stream: relaunch from the first unreported seed
+                    }
+                    sink.accept(result);
+                    next++;
+                }
+            } catch (EOFException e) {
+                // the worker died early: its remaining seeds go to a new worker
+            } catch (IOException e) {
+                System.err.println("shard " + shard.id() + ": " + e.getMessage());
+            } finally {
+                if (p != null) {
+                    reap(p);
+                }
+            }
+        }
+        return true;
+    }
+
+    // ends worker p and waits for it to exit (so no zombie is left behind)
+    private static void reap(Process p) {
+        p.destroy();
+        try {
+            if (!p.waitFor(ReapTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                p.destroyForcibly().waitFor(ReapTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            p.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
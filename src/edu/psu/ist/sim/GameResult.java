@@ -0,0 +1,26 @@
+package edu.psu.ist.sim;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The outcome of one simulated game. On the wire (worker to coordinator)
+ * it's a fixed {@value #Bytes}-byte record: seed, won, moves, nanos.
+ */
+public record GameResult(long seed, boolean won, int moves, long nanos) {
+
+    public static final int Bytes = Long.BYTES + 1 + Integer.BYTES + Long.BYTES;
+
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(seed);
+        out.writeBoolean(won);
+        out.writeInt(moves);
+        out.writeLong(nanos);
+    }
+
+    /** Reads a record; throws {@link java.io.EOFException} at the end of the stream. */
+    public static GameResult read(DataInput in) throws IOException {
+        return new GameResult(in.readLong(), in.readBoolean(), in.readInt(), in.readLong());
+    }
+}
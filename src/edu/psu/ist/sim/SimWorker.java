@@ -0,0 +1,40 @@
+package edu.psu.ist.sim;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The body of a worker process (see {@code Cli --sim-worker}): plays one
+ * shard of seeds, streaming a {@link GameResult} per game to {@code out}
+ * (the process's stdout, which the {@link Coordinator} reads).
+ */
+public final class SimWorker {
+
+    private static final int FlushEvery = 64;
+
+    private SimWorker() {}
+
+    /**
+     * Plays seeds {@code firstSeed .. firstSeed + count - 1} in order. A
+     * non-negative {@code dieAfter} makes the process halt abruptly after
+     * that many games -- for exercising the coordinator's recovery.
+     */
+    public static void run(int dim, int mines, long firstSeed, long count, long dieAfter,
+                           OutputStream out) throws IOException {
+        var sim = new Simulator();
+        var data = new DataOutputStream(new BufferedOutputStream(out, FlushEvery * GameResult.Bytes));
+        for (long i = 0; i < count; i++) {
+            if (i == dieAfter) {
+                data.flush();
+                Runtime.getRuntime().halt(3);
+            }
+            sim.play(dim, mines, firstSeed + i).write(data);
+            if ((i + 1) % FlushEvery == 0) {
+                data.flush();
+            }
+        }
+        data.flush();
+    }
+}
@@ -0,0 +1,87 @@
+package edu.psu.ist.sim;
+
+import edu.psu.ist.MinesweeperGame;
+import edu.psu.ist.TileType;
+import edu.psu.ist.generator.RandomBoards;
+import edu.psu.ist.immutableadts.Pair;
+import edu.psu.ist.solver.LocalPatternSolver;
+
+import java.util.SplittableRandom;
+
+/**
+ * Plays whole games with a simple bot: click the center, then uncover
+ * every cell the {@link LocalPatternSolver} proves safe, guessing a
+ * (seeded) random hidden cell only when no deduction is left. The same
+ * seed always plays the same game -- so any process can (re)play any seed.
+ */
+public final class Simulator {
+
+    private final LocalPatternSolver solver;
+
+    public Simulator(LocalPatternSolver solver) {
+        this.solver = solver;
+    }
+
+    public Simulator() {
+        this(new LocalPatternSolver());
+    }
+
+    /** Plays the random {@code dim}x{@code dim} board with {@code mines} mines of {@code seed}. */
+    public GameResult play(int dim, int mines, long seed) {
+        var start = System.nanoTime();
+        var game = new MinesweeperGame(RandomBoards.random(dim, mines, seed), 0);
+        var rnd = new SplittableRandom(~seed);
+        var moves = 0;
+        var row = dim / 2;
+        var col = dim / 2;
+        while (true) {
+            moves++;
+            if (game.revealSquare(row, col) instanceof TileType.Mine) {
+                return new GameResult(seed, false, moves, System.nanoTime() - start);
+            }
+            game.advanceGame(row, col);
+            if (game.inWinState()) {
+                return new GameResult(seed, true, moves, System.nanoTime() - start);
+            }
+            var next = deducedSafeCell(game);
+            if (next == null) {
+                next = randomHiddenCell(game, rnd);
+            }
+            row = next.first();
+            col = next.second();
+        }
+    }
+
+    private Pair<Integer, Integer> deducedSafeCell(MinesweeperGame game) {
+        var board = game.board();
+        var dim = board.dimension();
+        for (int r = 0; r < dim; r++) {
+            for (int c = 0; c < dim; c++) {
+                if (board.tileAt(r, c) instanceof TileType.Uncovered(var n) && n > 0) {
+                    for (var safe : solver.deduce(board, r, c).safeCells(r, c)) {
+                        if (!(board.tileAt(safe.first(), safe.second()) instanceof TileType.Uncovered)) {
+                            return safe;
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Pair<Integer, Integer> randomHiddenCell(MinesweeperGame game, SplittableRandom rnd) {
+        var board = game.board();
+        var dim = board.dimension();
+        var covered = 0;
+        for (int i = 0; i < dim * dim; i++) {
+            covered += board.tileAt(i / dim, i % dim) instanceof TileType.Uncovered ? 0 : 1;
+        }
+        var pick = rnd.nextInt(covered);
+        for (int i = 0; i < dim * dim; i++) {
+            if (!(board.tileAt(i / dim, i % dim) instanceof TileType.Uncovered) && pick-- == 0) {
+                return Pair.of(i / dim, i % dim);
+            }
+        }
+        throw new IllegalStateException("no covered cell left on an unfinished board");
+    }
+}
@@ -0,0 +1,38 @@
+package edu.psu.ist.solver;
+
+import edu.psu.ist.immutableadts.Pair;
+import io.vavr.collection.Vector;
+
+/**
+ * The cells of a {@link PatternKey} window that are provably safe or provably
+ * mines, as bitmasks over the window's (row-major) cell indices.
+ */
+public record Deduction(int safeMask, int mineMask) {
+
+    public static final Deduction None = new Deduction(0, 0);
+
+    public boolean isEmpty() {
+        return safeMask == 0 && mineMask == 0;
+    }
+
+    /** Board coordinates of the safe cells in the window centered on row,col. */
+    public Vector<Pair<Integer, Integer>> safeCells(int row, int col) {
+        return toCoords(safeMask, row, col);
+    }
+
+    /** Board coordinates of the mined cells in the window centered on row,col. */
+    public Vector<Pair<Integer, Integer>> mineCells(int row, int col) {
+        return toCoords(mineMask, row, col);
+    }
+
+    private static Vector<Pair<Integer, Integer>> toCoords(int mask, int row, int col) {
+        var result = Vector.<Pair<Integer, Integer>>empty();
+        for (var m = mask; m != 0; m &= m - 1) {
+            var i = Integer.numberOfTrailingZeros(m);
+            result = result.append(Pair.of(
+                    row + i / PatternKey.Size - PatternKey.Radius,
+                    col + i % PatternKey.Size - PatternKey.Radius));
+        }
+        return result;
+    }
+}
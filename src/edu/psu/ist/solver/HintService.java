@@ -0,0 +1,299 @@
+package edu.psu.ist.solver;
+
+import edu.psu.ist.NeighbourTable;
+import edu.psu.ist.SquareBoard;
+import edu.psu.ist.TileChange;
+import edu.psu.ist.TileType;
+import edu.psu.ist.Topology;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Answers "what's a safe move?" for one game, keeping its analysis between
+ * calls.
+ * <p>
+ * The first {@link #hint} analyses every numbered cell; after that the
+ * game reports each move's tile changes via {@link #invalidate} and only
+ * the cells whose neighbourhood (two hops, i.e. the {@link PatternKey}
+ * window on square boards) touched a change are analysed again -- lazily,
+ * on the next hint. Analysing a cell:
+ * <ul>
+ *     <li>runs the local solver on it ({@link LocalPatternSolver} on square
+ *     boards, {@link TopologySolver} otherwise): proven safe cells go on a
+ *     stack of candidates and proven mines are remembered</li>
+ *     <li>re-estimates the risk of the covered cells around it: the highest
+ *     "mines still needed / unknown cells" ratio of any number they
+ *     touch, kept in a (lazily cleaned) min-heap</li>
+ * </ul>
+ * A hint is then a pop off the safe stack or, failing that, the lowest
+ * risk frontier cell -- unless a covered cell away from the frontier is a
+ * better bet at the board's remaining mine density.
+ * <p>
+ * What's proven stays true (mines don't move), so undos needn't discard
+ * anything; only an update that moves a mine does. Not thread safe.
+ */
+public final class HintService {
+
+    /**
+     * A suggested move: {@code safe} if the cell is provably not a mine,
+     * otherwise {@code risk} estimates the chance that it is.
+     */
+    public record Hint(int row, int col, boolean safe, double risk) {}
+
+    private static final LocalPatternSolver Shared = new LocalPatternSolver();
+
+    private final LocalPatternSolver solver;
+    private final TopologySolver topologySolver = new TopologySolver();
+
+    // analysis state (null/empty until the first hint after a reset)
+    private SquareBoard board;
+    private NeighbourTable table;
+    private boolean[] dirty;
+    private int[] dirtyQueue;
+    private int dirtyCount;
+    private boolean[] knownMine;
+    private boolean[] queuedSafe;
+    private int[] safeStack;
+    private int safeCount;
+    private float[] risk;          // -1 for cells off the frontier
+    private final PriorityQueue<Long> byRisk = new PriorityQueue<>();
+    private int interiorCursor;
+    private int mines;
+    private int knownMines;
+    private int covered;
+
+    public HintService(LocalPatternSolver solver) {
+        this.solver = solver;
+    }
+
+    /** A hint service sharing one pattern cache with all others created so. */
+    public HintService() {
+        this(Shared);
+    }
+
+    /** Drops all cached analysis (the next hint starts from scratch). */
+    public void reset() {
+        board = null;
+        dirty = null;
+        byRisk.clear();
+    }
+
+    /** Records that {@code changes} were applied to the board being hinted. */
+    public void invalidate(Iterable<TileChange> changes) {
+        if (dirty == null) {
+            return;
+        }
+        var dim = table.dimension();
+        for (var c : changes) {
+            if (c.before().isMine() != c.after().isMine()) {
+                reset(); // the layout itself changed
+                return;
+            }
+            var cell = c.row() * dim + c.col();
+            var wasCovered = !(c.before() instanceof TileType.Uncovered);
+            var isCovered = !(c.after() instanceof TileType.Uncovered);
+            covered += (isCovered ? 1 : 0) - (wasCovered ? 1 : 0);
+            if (isCovered) {
+                interiorCursor = Math.min(interiorCursor, cell);
+            }
+            markDirty(cell);
+            for (int i = table.start(cell); i < table.end(cell); i++) {
+                var nb = table.at(i);
+                markDirty(nb);
+                for (int j = table.start(nb); j < table.end(nb); j++) {
+                    markDirty(table.at(j));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a provably safe covered cell of {@code current} (the board
+     * after every change reported to {@link #invalidate}) if one is known,
+     * else the covered cell judged least likely to be a mine; empty once
+     * nothing's left to uncover (every covered cell is a mine).
+     */
+    public Optional<Hint> hint(SquareBoard current) {
+        if (current.hiddenCount() == 0) {
+            return Optional.empty(); // won: the changes stay queued for any undo
+        }
+        if (dirty == null || table.dimension() != current.dimension()
+                || table.topology() != current.topology()) {
+            init(current);
+        }
+        board = current;
+        while (dirtyCount > 0) {
+            var cell = dirtyQueue[--dirtyCount];
+            dirty[cell] = false;
+            analyse(cell);
+        }
+        var dim = table.dimension();
+        while (safeCount > 0) {
+            var cell = safeStack[safeCount - 1];
+            if (isCandidate(cell)) {
+                return Optional.of(new Hint(cell / dim, cell % dim, true, 0));
+            }
+            queuedSafe[cell] = false;
+            safeCount--;
+        }
+
+        var unknown = covered - knownMines;
+        var interiorRisk = unknown <= 0 ? 1 : (double) (mines - knownMines) / unknown;
+        while (!byRisk.isEmpty()) {
+            var top = byRisk.peek();
+            var cell = (int) (top & 0xffffffffL);
+            var r = Float.intBitsToFloat((int) (top >>> 32));
+            if (!isCandidate(cell) || risk[cell] != r) {
+                byRisk.poll(); // stale
+                continue;
+            }
+            if (r <= interiorRisk || nextInteriorCell() < 0) {
+                return Optional.of(new Hint(cell / dim, cell % dim, false, r));
+            }
+            break;
+        }
+        var interior = nextInteriorCell();
+        return interior < 0
+                ? Optional.empty()
+                : Optional.of(new Hint(interior / dim, interior % dim, false, interiorRisk));
+    }
+
+    private void init(SquareBoard current) {
+        board = current;
+        table = current.neighbours();
+        var n = table.cellCount();
+        dirty = new boolean[n];
+        dirtyQueue = new int[n];
+        dirtyCount = 0;
+        knownMine = new boolean[n];
+        queuedSafe = new boolean[n];
+        safeStack = new int[n];
+        safeCount = 0;
+        risk = new float[n];
+        Arrays.fill(risk, -1);
+        byRisk.clear();
+        interiorCursor = 0;
+        mines = 0;
+        knownMines = 0;
+        covered = 0;
+        for (int i = 0; i < n; i++) {
+            var tile = tileAt(i);
+            mines += tile.isMine() ? 1 : 0; // (the mine count is public knowledge)
+            covered += tile instanceof TileType.Uncovered ? 0 : 1;
+            markDirty(i);
+        }
+    }
+
+    private void markDirty(int cell) {
+        if (!dirty[cell]) {
+            dirty[cell] = true;
+            dirtyQueue[dirtyCount++] = cell;
+        }
+    }
+
+    private TileType tileAt(int cell) {
+        var dim = table.dimension();
+        return board.tileAt(cell / dim, cell % dim);
+    }
+
+    // covered, unflagged and not a known mine: worth suggesting
+    private boolean isCandidate(int cell) {
+        var tile = tileAt(cell);
+        return (tile instanceof TileType.Hidden || tile instanceof TileType.Mine) && !knownMine[cell];
+    }
+
+    // the next covered cell off the frontier (no risk estimate), or -1
+    private int nextInteriorCell() {
+        var n = table.cellCount();
+        while (interiorCursor < n) {
+            var cell = interiorCursor;
+            if (risk[cell] < 0 && isCandidate(cell)) {
+                return cell;
+            }
+            interiorCursor++;
+        }
+        return -1;
+    }
+
+    private void analyse(int cell) {
+        if (tileAt(cell) instanceof TileType.Uncovered(var count) && count > 0) {
+            deduce(cell);
+        }
+        updateRisk(cell);
+    }
+
+    private void deduce(int cell) {
+        var dim = table.dimension();
+        if (table.topology() == Topology.Square) {
+            var d = solver.deduce(board, cell / dim, cell % dim);
+            for (var m = d.safeMask(); m != 0; m &= m - 1) {
+                addSafe(windowCell(cell, Integer.numberOfTrailingZeros(m)));
+            }
+            for (var m = d.mineMask(); m != 0; m &= m - 1) {
+                addMine(windowCell(cell, Integer.numberOfTrailingZeros(m)));
+            }
+        } else {
+            var d = topologySolver.deduce(board, cell / dim, cell % dim);
+            for (var s : d.safeCells()) {
+                addSafe(s);
+            }
+            for (var m : d.mineCells()) {
+                addMine(m);
+            }
+        }
+    }
+
+    private int windowCell(int center, int i) {
+        var dim = table.dimension();
+        return (center / dim + i / PatternKey.Size - PatternKey.Radius) * dim
+                + center % dim + i % PatternKey.Size - PatternKey.Radius;
+    }
+
+    private void addSafe(int cell) {
+        if (!queuedSafe[cell] && isCandidate(cell)) {
+            queuedSafe[cell] = true;
+            safeStack[safeCount++] = cell;
+        }
+    }
+
+    private void addMine(int cell) {
+        if (!knownMine[cell]) {
+            knownMine[cell] = true;
+            knownMines++;
+            for (int i = table.start(cell); i < table.end(cell); i++) {
+                markDirty(table.at(i)); // its numbers now need fewer mines
+            }
+        }
+    }
+
+    // re-estimates the risk of (covered) cell from the numbers around it
+    private void updateRisk(int cell) {
+        var r = -1f;
+        if (isCandidate(cell)) {
+            for (int i = table.start(cell); i < table.end(cell); i++) {
+                var u = table.at(i);
+                if (tileAt(u) instanceof TileType.Uncovered(var count)) {
+                    var unknown = 0;
+                    var left = count;
+                    for (int j = table.start(u); j < table.end(u); j++) {
+                        var v = table.at(j);
+                        if (knownMine[v]) {
+                            left--;
+                        } else if (!(tileAt(v) instanceof TileType.Uncovered)) {
+                            unknown++;
+                        }
+                    }
+                    if (unknown > 0) {
+                        r = Math.max(r, (float) Math.max(0, left) / unknown);
+                    }
+                }
+            }
+        }
+        risk[cell] = r;
+        if (r >= 0) {
+            byRisk.add(((long) Float.floatToIntBits(r) << 32) | cell);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package edu.psu.ist.solver;
+
+import edu.psu.ist.SquareBoard;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Deduces safe cells/mines around a (frontier) cell from its local
+ * {@link PatternKey} window, going through a shared {@link PatternCache} so
+ * that a pattern seen before -- on any board, at any position -- skips
+ * constraint solving entirely.
+ * <p>
+ * Windows describe square neighbourhoods, so this solver is only meant for
+ * {@link edu.psu.ist.Topology#Square} boards; see {@link TopologySolver}
+ * for the others.
+ */
+public final class LocalPatternSolver {
+
+    /** The default number of patterns kept by {@link #LocalPatternSolver()}. */
+    public static final int DefaultCacheSize = 1 << 16;
+
+    private final PatternCache cache;
+
+    public LocalPatternSolver(PatternCache cache) {
+        this.cache = cache;
+    }
+
+    public LocalPatternSolver() {
+        this(new PatternCache(DefaultCacheSize));
+    }
+
+    public PatternCache cache() {
+        return cache;
+    }
+
+    /**
+     * Returns what can be deduced about the window centered on
+     * {@code row,col} (see {@link Deduction#safeCells(int, int)} for
+     * mapping it back to board coordinates).
+     */
+    public Deduction deduce(SquareBoard board, int row, int col) {
+        return cache.get(PatternKey.of(board, row, col), LocalSolver::solve);
+    }
+
+    /** As {@link #deduce(SquareBoard, int, int)}, over tile codes. */
+    public Deduction deduce(int dim, IntBinaryOperator codeAt, int row, int col) {
+        return cache.get(PatternKey.of(dim, codeAt, row, col), LocalSolver::solve);
+    }
+}
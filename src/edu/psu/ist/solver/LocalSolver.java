@@ -0,0 +1,112 @@
+package edu.psu.ist.solver;
+
+/**
+ * Deduces safe cells and mines from a single {@link PatternKey} window.
+ * <p>
+ * Only the numbered cells of the inner 3x3 have their whole neighbourhood
+ * inside the window, so each of those yields a constraint "exactly
+ * {@code n} of these unknown cells are mines". Constraints are then
+ * resolved to a fixpoint with the two classic rules:
+ * <ul>
+ *     <li>a constraint needing 0 more mines makes all its cells safe; one
+ *     needing as many mines as it has unknowns makes them all mines</li>
+ *     <li>if constraint {@code A}'s cells are a subset of {@code B}'s, then
+ *     {@code B \ A} holds exactly {@code n(B) - n(A)} mines (and the first
+ *     rule applies to that difference)</li>
+ * </ul>
+ * The result depends only on the key -- so it's safe to cache.
+ */
+public final class LocalSolver {
+
+    private static final int MaxConstraints = 9;
+
+    private LocalSolver() {}
+
+    public static Deduction solve(PatternKey key) {
+        var masks = new long[MaxConstraints];
+        var counts = new int[MaxConstraints];
+        var n = 0;
+        for (int r = 1; r <= 3; r++) {
+            for (int c = 1; c <= 3; c++) {
+                var code = key.cell(r * PatternKey.Size + c);
+                if (code < 1 || code > 9) {
+                    continue; // unknown, wall or opaque: no constraint
+                }
+                var mask = 0L;
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        var j = (r + dr) * PatternKey.Size + (c + dc);
+                        if ((dr != 0 || dc != 0) && key.cell(j) == PatternKey.Unknown) {
+                            mask |= 1L << j;
+                        }
+                    }
+                }
+                if (mask != 0) {
+                    masks[n] = mask;
+                    counts[n] = code - 1;
+                    n++;
+                }
+            }
+        }
+
+        var resolved = resolve(masks, counts, n);
+        var safe = (int) resolved[0];
+        var mines = (int) resolved[1];
+        // contradictory windows (only possible on semantically bad boards)
+        return (safe & mines) != 0 ? Deduction.None : new Deduction(safe, mines);
+    }
+
+    /**
+     * Resolves the {@code n} constraints "exactly {@code counts[i]} of the
+     * cells in bitmask {@code masks[i]} are mines" to a fixpoint, returning
+     * the masks of the cells found {@code {safe, mines}}. Shared with the
+     * {@link TopologySolver} (whose cells are numbered differently).
+     */
+    static long[] resolve(long[] masks, int[] counts, int n) {
+        var out = new long[2];
+        resolve(masks, counts, n, out);
+        return out;
+    }
+
+    /** As {@link #resolve(long[], int[], int)}, into {@code out} (allocation free). */
+    static void resolve(long[] masks, int[] counts, int n, long[] out) {
+        long safe = 0;
+        long mines = 0;
+        var changed = true;
+        while (changed) {
+            changed = false;
+            for (int a = 0; a < n; a++) {
+                var ma = masks[a] & ~(safe | mines);
+                if (ma == 0) {
+                    continue;
+                }
+                var ca = counts[a] - Long.bitCount(masks[a] & mines);
+                if (ca == 0) {
+                    safe |= ma;
+                    changed = true;
+                } else if (ca == Long.bitCount(ma)) {
+                    mines |= ma;
+                    changed = true;
+                } else {
+                    for (int b = 0; b < n; b++) {
+                        var mb = masks[b] & ~(safe | mines);
+                        if (a == b || mb == ma || (ma & ~mb) != 0) {
+                            continue; // only strict supersets of a are useful
+                        }
+                        var diff = mb & ~ma;
+                        var cd = counts[b] - Long.bitCount(masks[b] & mines) - ca;
+                        if (cd == 0) {
+                            safe |= diff;
+                            changed = true;
+                        } else if (cd == Long.bitCount(diff)) {
+                            mines |= diff;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+        }
+        out[0] = safe;
+        out[1] = mines;
+    }
+}
@@ -0,0 +1,150 @@
+package edu.psu.ist.solver;
+
+import edu.psu.ist.metrics.Counter;
+import edu.psu.ist.metrics.Metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A bounded, concurrent, least-recently-used cache from {@link PatternKey}s
+ * to their {@link Deduction}s.
+ * <p>
+ * The key space is split over a fixed number of segments (picked by key
+ * hash), each an access-ordered {@link LinkedHashMap} behind its own lock --
+ * so threads working on different patterns rarely contend, and each segment
+ * evicts its own least recently used entry once it is full. Hits, misses and
+ * evictions are counted per cache and in the global {@link Metrics}
+ * registry ({@code solver.cache.*}).
+ */
+public final class PatternCache {
+
+    private static final Counter GlobalHits = Metrics.global().counter("solver.cache.hits");
+    private static final Counter GlobalMisses = Metrics.global().counter("solver.cache.misses");
+    private static final Counter GlobalEvictions = Metrics.global().counter("solver.cache.evictions");
+
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding at most (about) {@code maxEntries} deductions
+     * spread over {@code segmentCount} (a power of two) segments.
+     */
+    public PatternCache(int maxEntries, int segmentCount) {
+        if (Integer.bitCount(segmentCount) != 1) {
+            throw new IllegalArgumentException("segment count must be a power of two");
+        }
+        segments = new Segment[segmentCount];
+        var perSegment = Math.max(1, maxEntries / segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    public PatternCache(int maxEntries) {
+        this(maxEntries, 16);
+    }
+
+    /**
+     * Returns the cached deduction for {@code key}, computing (and caching)
+     * it via {@code solver} on a miss. The solver runs outside the segment
+     * lock, so two threads missing on the same key may both compute it.
+     */
+    public Deduction get(PatternKey key, Function<PatternKey, Deduction> solver) {
+        var seg = segmentFor(key);
+        var cached = seg.get(key);
+        if (cached != null) {
+            hits.increment();
+            GlobalHits.increment();
+            return cached;
+        }
+        misses.increment();
+        GlobalMisses.increment();
+        var computed = solver.apply(key);
+        seg.put(key, computed);
+        return computed;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /** Returns the fraction of lookups served from the cache (0 if none). */
+    public double hitRate() {
+        var h = hits();
+        var total = h + misses();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    public int size() {
+        var n = 0;
+        for (var s : segments) {
+            n += s.size();
+        }
+        return n;
+    }
+
+    private Segment segmentFor(PatternKey key) {
+        var h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (segments.length - 1)];
+    }
+
+    private final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<PatternKey, Deduction> map;
+
+        Segment(int capacity) {
+            map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override protected boolean removeEldestEntry(Map.Entry<PatternKey, Deduction> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        GlobalEvictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        Deduction get(PatternKey key) {
+            lock.lock();
+            try {
+                return map.get(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(PatternKey key, Deduction d) {
+            lock.lock();
+            try {
+                map.put(key, d);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return map.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package edu.psu.ist.solver;
+
+import edu.psu.ist.SquareBoard;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * A packed encoding of the {@link #Size}x{@link #Size} window of tiles
+ * centered on some cell -- as seen by a player: mines and hidden tiles both
+ * look {@link #Unknown}. So do flagged tiles: a flag is only the player's
+ * guess, so deductions never rely on one.
+ * <p>
+ * Each of the 25 window cells takes 4 bits (cells 0-15 in {@code lo},
+ * 16-24 in {@code hi}; row-major with the center cell at index
+ * {@link #Center}), so equal keys mean identical local patterns no matter
+ * where on which board they came from.
+ */
+public record PatternKey(long hi, long lo) {
+
+    public static final int Size = 5;
+    public static final int Radius = Size / 2;
+    public static final int Cells = Size * Size;
+    public static final int Center = Cells / 2;
+
+    // 4-bit cell codes: Uncovered(n) for n in 0..8 is encoded as n + 1
+    public static final int Unknown = 0;
+    public static final int Wall = 10;    // off the edge of the board
+    public static final int Opaque = 11;  // an uncovered count no real board has
+
+    /** Encodes the window around {@code row,col} of {@code board}. */
+    public static PatternKey of(SquareBoard board, int row, int col) {
+        return of(board.dimension(), (r, c) -> board.tileAt(r, c).code(), row, col);
+    }
+
+    /**
+     * Encodes the window around {@code row,col} of a {@code dim}x{@code dim}
+     * board whose tiles are given by their {@link edu.psu.ist.TileType#code()}
+     * via {@code codeAt}.
+     */
+    public static PatternKey of(int dim, IntBinaryOperator codeAt, int row, int col) {
+        long hi = 0;
+        long lo = 0;
+        for (int i = 0; i < Cells; i++) {
+            var r = row + i / Size - Radius;
+            var c = col + i % Size - Radius;
+            long cell = (r < 0 || c < 0 || r >= dim || c >= dim)
+                    ? Wall
+                    : cellCode(codeAt.applyAsInt(r, c));
+            if (i < 16) {
+                lo |= cell << (4 * i);
+            } else {
+                hi |= cell << (4 * (i - 16));
+            }
+        }
+        return new PatternKey(hi, lo);
+    }
+
+    private static int cellCode(int tileCode) {
+        if (tileCode < 0) {
+            return Unknown; // mines, hidden and flagged tiles look alike to a player
+        }
+        return tileCode <= 8 ? tileCode + 1 : Opaque;
+    }
+
+    /** Returns the 4-bit code of window cell {@code i}. */
+    public int cell(int i) {
+        return (int) (i < 16 ? (lo >>> (4 * i)) & 0xf : (hi >>> (4 * (i - 16))) & 0xf);
+    }
+}
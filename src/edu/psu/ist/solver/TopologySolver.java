@@ -0,0 +1,154 @@
+package edu.psu.ist.solver;
+
+import edu.psu.ist.NeighbourTable;
+import edu.psu.ist.SquareBoard;
+import edu.psu.ist.TileType;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Deduces safe cells and mines around a cell of a board of <em>any</em>
+ * {@link edu.psu.ist.Topology} by walking its {@link NeighbourTable}.
+ * <p>
+ * The {@link LocalPatternSolver}'s 5x5 windows only describe square
+ * neighbourhoods; here the "window" is instead the cell, its neighbours and
+ * their neighbours (at most 64 cells -- e.g. 25 for square/toroidal, 19 for
+ * hexagonal and 42 for knight boards). The cell and its numbered neighbours
+ * each contribute a constraint, resolved with the same rules as the
+ * {@link LocalSolver}. Results aren't cached: their cells are board
+ * positions, not window positions.
+ * <p>
+ * A solver keeps its scratch space between calls (board cells are mapped
+ * to window slots through a stamped array rather than searched for), so
+ * only a successful deduction allocates -- for its result. Not thread
+ * safe: use one per thread.
+ */
+public final class TopologySolver {
+
+    private static final int MaxLocalCells = Long.SIZE;
+
+    /** The board cells ({@code row * dim + col}) found safe / to be mines. */
+    public record CellDeduction(int[] safeCells, int[] mineCells) {
+        public boolean isEmpty() {
+            return safeCells.length == 0 && mineCells.length == 0;
+        }
+    }
+
+    private static final CellDeduction None = new CellDeduction(new int[0], new int[0]);
+
+    // scratch: the window's cells, and for each board cell its window slot
+    // (valid only where stamps[cell] == stamp)
+    private final int[] local = new int[MaxLocalCells];
+    private final long[] masks = new long[MaxLocalCells];
+    private final int[] counts = new int[MaxLocalCells];
+    private final long[] resolved = new long[2];
+    private int[] stamps = new int[0];
+    private int[] slots = new int[0];
+    private int stamp;
+
+    // the board being solved by deduce(SquareBoard, ...)
+    private SquareBoard board;
+    private final IntUnaryOperator boardCounts = this::boardCount;
+
+    /**
+     * Returns what can be deduced around {@code row,col} of {@code board}
+     * (as a player sees it: mines are just hidden cells).
+     */
+    public CellDeduction deduce(SquareBoard board, int row, int col) {
+        this.board = board;
+        try {
+            return deduce(board.neighbours(), boardCounts, row * board.dimension() + col);
+        } finally {
+            this.board = null;
+        }
+    }
+
+    private int boardCount(int cell) {
+        var dim = board.dimension();
+        return board.tileAt(cell / dim, cell % dim) instanceof TileType.Uncovered(var n) ? n : -1;
+    }
+
+    /**
+     * Returns what can be deduced around {@code cell}, where
+     * {@code countAt} gives each cell's uncovered count (or a negative
+     * number for cells that aren't uncovered).
+     */
+    public CellDeduction deduce(NeighbourTable table, IntUnaryOperator countAt, int cell) {
+        nextStamp(table.cellCount());
+        // gather the local cells: cell, its neighbours, then theirs
+        var size = add(0, cell);
+        for (int i = table.start(cell); i < table.end(cell); i++) {
+            size = add(size, table.at(i));
+        }
+        var firstHop = size;
+        for (int h = 0; h < firstHop; h++) {
+            for (int i = table.start(local[h]); i < table.end(local[h]); i++) {
+                size = add(size, table.at(i));
+            }
+        }
+
+        // one constraint per numbered cell among the first hop
+        var n = 0;
+        for (int h = 0; h < firstHop; h++) {
+            var count = countAt.applyAsInt(local[h]);
+            if (count < 0) {
+                continue;
+            }
+            var mask = 0L;
+            for (int i = table.start(local[h]); i < table.end(local[h]); i++) {
+                var nb = table.at(i);
+                if (stamps[nb] != stamp) {
+                    mask = 0; // neighbourhood doesn't fit: skip the constraint
+                    break;
+                }
+                if (countAt.applyAsInt(nb) < 0) {
+                    mask |= 1L << slots[nb];
+                }
+            }
+            if (mask != 0) {
+                masks[n] = mask;
+                counts[n] = count;
+                n++;
+            }
+        }
+        LocalSolver.resolve(masks, counts, n, resolved);
+        if ((resolved[0] | resolved[1]) == 0 || (resolved[0] & resolved[1]) != 0) {
+            return None; // nothing found, or a semantically bad board
+        }
+        return new CellDeduction(cellsOf(resolved[0]), cellsOf(resolved[1]));
+    }
+
+    // starts a fresh cell -> slot mapping for a board of cellCount cells
+    private void nextStamp(int cellCount) {
+        if (stamps.length < cellCount) {
+            stamps = new int[cellCount];
+            slots = new int[cellCount];
+            stamp = 0;
+        }
+        if (++stamp == 0) { // wrapped: forget every old stamp
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+    }
+
+    private int add(int size, int c) {
+        if (size == MaxLocalCells || stamps[c] == stamp) {
+            return size;
+        }
+        stamps[c] = stamp;
+        slots[c] = size;
+        local[size] = c;
+        return size + 1;
+    }
+
+    private int[] cellsOf(long mask) {
+        var out = new int[Long.bitCount(mask)];
+        var k = 0;
+        for (var m = mask; m != 0; m &= m - 1) {
+            out[k++] = local[Long.numberOfTrailingZeros(m)];
+        }
+        Arrays.sort(out);
+        return out;
+    }
+}
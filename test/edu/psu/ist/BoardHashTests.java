@@ -0,0 +1,75 @@
+package edu.psu.ist;
+
+import io.vavr.collection.Vector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static edu.psu.ist.TileType.*;
+
+public final class BoardHashTests {
+
+    private static SquareBoard board(String... rows) {
+        var b = new SquareBoard.ValidatingBoardBuilder();
+        for (var r : rows) {
+            b.row(r);
+        }
+        var res = b.build();
+        Assertions.assertTrue(res.isOk());
+        return res.get();
+    }
+
+    @Test public void testIncrementalHashMatchesFreshBoard() {
+        var b = board("_*_", "___", "__*");
+        var updated = b.withUpdatedTile(0, 0, un(1)).withUpdatedTile(2, 0, un(0));
+        var fresh = board("1*_", "___", "0_*");
+        Assertions.assertEquals(fresh.zobristHash(), updated.zobristHash());
+        Assertions.assertEquals(fresh, updated);
+        Assertions.assertEquals(fresh.hashCode(), updated.hashCode());
+
+        // xor-ing the old tile back in restores the original hash
+        var reverted = updated.withUpdatedTile(0, 0, hidden()).withUpdatedTile(2, 0, hidden());
+        Assertions.assertEquals(b.zobristHash(), reverted.zobristHash());
+        Assertions.assertEquals(b, reverted);
+        Assertions.assertNotEquals(b, updated);
+    }
+
+    @Test public void testBatchUpdateMatchesSingleUpdates() {
+        var b = board("_*_", "___", "__*");
+        var batched = b.withUpdatedTiles(Vector.of(
+                new TileChange(0, 0, hidden(), un(1)),
+                new TileChange(1, 1, hidden(), un(2)),
+                new TileChange(0, 0, un(1), un(3)))); // later change wins
+        var single = b.withUpdatedTile(1, 1, un(2)).withUpdatedTile(0, 0, un(3));
+        Assertions.assertEquals(single, batched);
+        Assertions.assertEquals(single.toString(), batched.toString());
+    }
+
+    @Test public void testBoardsAsHashKeys() {
+        var seen = new HashSet<SquareBoard>();
+        seen.add(board("_*", "__"));
+        seen.add(board("_*", "__").withUpdatedTile(1, 1, un(1)).withUpdatedTile(1, 1, hidden()));
+        seen.add(board("*_", "__"));
+        Assertions.assertEquals(2, seen.size());
+    }
+
+    @Test public void testKeysUseTheWholeTileCode() {
+        // codes that only differ past their low 16 bits still get distinct keys
+        Assertions.assertNotEquals(SquareBoard.zobristKey(0, 0, un(1)),
+                SquareBoard.zobristKey(0, 0, un(1 + (1 << 16))));
+        Assertions.assertNotEquals(SquareBoard.zobristKey(3, 5, hidden()),
+                SquareBoard.zobristKey(3, 5, un(-2 & 0xffff)));
+    }
+
+    @Test public void testTrustedTilesMatchValidatedBoard() {
+        var validated = board("1*_", "F__", "0_!");
+        var trusted = SquareBoard.ofTrustedTiles(Topology.Square, 3, new TileType[]{
+                un(1), mine(), hidden(), flagged(false), hidden(), hidden(), un(0), hidden(), flagged(true)});
+        Assertions.assertEquals(validated, trusted);
+        Assertions.assertEquals(validated.zobristHash(), trusted.zobristHash());
+        Assertions.assertEquals(validated.hiddenCount(), trusted.hiddenCount());
+        // (its opening index is built on demand)
+        Assertions.assertEquals(validated.openings().openingAt(2, 0), trusted.openings().openingAt(2, 0));
+    }
+}
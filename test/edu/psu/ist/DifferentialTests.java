@@ -0,0 +1,544 @@
+package edu.psu.ist;
+
+import edu.psu.ist.generator.ScratchEngine;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Randomized differential testing: seeded boards and move sequences are
+ * played on the reference {@link MinesweeperGame} and on an alternative
+ * {@link Engine}, comparing every cell's tile and mine count, the win
+ * state, the rendering and each move's result after every step. A
+ * divergence is shrunk (fewer moves, fewer mines, a smaller board) to a
+ * minimal reproduction before being reported.
+ * <p>
+ * New backends plug in by implementing {@link Engine} (see
+ * {@link ScratchEngine} for one that supports reveals only).
+ */
+public final class DifferentialTests {
+
+    public enum Kind {Reveal, Flag, Chord, Undo, Redo}
+
+    public record Op(Kind kind, int row, int col) {
+        @Override public String toString() { return kind + " " + row + "," + col; }
+    }
+
+    /** Something that plays minesweeper, as seen by the harness. */
+    public interface Engine {
+
+        /**
+         * Plays {@code op}, returning: for reveals -1 on a mine (the game
+         * is over) else 0; for flags 1 if toggled else 0; for chords the
+         * number of cells uncovered or -1 on a mine; for undo/redo 1 if
+         * anything was undone/redone else 0.
+         */
+        int apply(Op op);
+
+        /** The {@link TileType#code()} of the tile at row,col. */
+        int code(int row, int col);
+
+        int adjacentMines(int row, int col);
+
+        boolean won();
+
+        default boolean supports(Kind kind) {
+            return true;
+        }
+
+        /** Renders as {@link MinesweeperGame#renderGameState()} does. */
+        default String render(int dim) {
+            var sb = new StringBuilder();
+            var mines = 0;
+            var hidden = 0;
+            for (int r = 0; r < dim; r++) {
+                for (int c = 0; c < dim; c++) {
+                    var code = code(r, c);
+                    mines += code == -1 || code == -4 ? 1 : 0;
+                    hidden += code == -2 || code == -3 ? 1 : 0;
+                    sb.append(TileType.ofCode(code).cellAsString()).append(c == dim - 1 ? "" : " ");
+                }
+                sb.append(r == dim - 1 ? "" : "\n");
+            }
+            return sb + "\nmine ct: " + mines + "\nhidden ct: " + hidden;
+        }
+    }
+
+    /** A board layout plus the moves to play on it. */
+    public record Case(int dim, Topology topology, boolean[] mines, List<Op> ops) {
+
+        SquareBoard board() {
+            var b = new SquareBoard.ValidatingBoardBuilder().topology(topology);
+            for (int r = 0; r < dim; r++) {
+                var row = new char[dim];
+                for (int c = 0; c < dim; c++) {
+                    row[c] = mines[r * dim + c] ? '*' : '_';
+                }
+                b.row(row);
+            }
+            return b.build().get();
+        }
+
+        int mineCount() {
+            var n = 0;
+            for (var m : mines) {
+                n += m ? 1 : 0;
+            }
+            return n;
+        }
+
+        @Override public String toString() {
+            return topology + " board:\n" + board() + "\nmoves: " + ops;
+        }
+    }
+
+    // a 1x1 board without moves (for asking an engine what it supports)
+    private static final Case Empty = new Case(1, Topology.Square, new boolean[1], List.of());
+
+    // -- engines
+
+    private static final class Reference implements Engine {
+        private final MinesweeperGame g;
+
+        Reference(SquareBoard board) {
+            this.g = new MinesweeperGame(board);
+        }
+
+        @Override public int apply(Op op) {
+            var r = op.row();
+            var c = op.col();
+            return switch (op.kind()) {
+                case Reveal -> {
+                    if (g.revealSquare(r, c) instanceof TileType.Mine) {
+                        yield -1;
+                    }
+                    g.advanceGame(r, c);
+                    yield 0;
+                }
+                case Flag -> g.toggleFlag(r, c) ? 1 : 0;
+                case Chord -> g.chord(r, c);
+                case Undo -> g.undo() ? 1 : 0;
+                case Redo -> g.redo() ? 1 : 0;
+            };
+        }
+
+        @Override public int code(int row, int col) { return g.board().tileAt(row, col).code(); }
+        @Override public int adjacentMines(int row, int col) { return g.adjacentMineCount(row, col); }
+        @Override public boolean won() { return g.inWinState(); }
+        @Override public String render(int dim) { return g.renderGameState(); }
+    }
+
+    /**
+     * The reference game with every reveal played as a one-move
+     * {@link MinesweeperGame#applyMoves(int[]) batch}.
+     */
+    private static final class Batched implements Engine {
+        private final MinesweeperGame g;
+
+        Batched(SquareBoard board) {
+            this.g = new MinesweeperGame(board);
+        }
+
+        @Override public int apply(Op op) {
+            var r = op.row();
+            var c = op.col();
+            return switch (op.kind()) {
+                case Reveal -> g.applyMoves(new int[] {r, c}).lost() ? -1 : 0;
+                case Flag -> g.toggleFlag(r, c) ? 1 : 0;
+                case Chord -> g.chord(r, c);
+                case Undo -> g.undo() ? 1 : 0;
+                case Redo -> g.redo() ? 1 : 0;
+            };
+        }
+
+        @Override public int code(int row, int col) { return g.board().tileAt(row, col).code(); }
+        @Override public int adjacentMines(int row, int col) { return g.adjacentMineCount(row, col); }
+        @Override public boolean won() { return g.inWinState(); }
+        @Override public String render(int dim) { return g.renderGameState(); }
+    }
+
+    /**
+     * A deliberately plain model of the rules over an array of tile codes
+     * (openings are found by flooding through zeros, undo keeps whole
+     * copies). {@code cascade = false} breaks it, for testing the harness.
+     */
+    private static final class Model implements Engine {
+        private final NeighbourTable table;
+        private final int dim;
+        private final boolean[] mines;
+        private final boolean cascade;
+        private int[] codes;
+        private final ArrayDeque<int[]> undos = new ArrayDeque<>();
+        private final ArrayDeque<int[]> redos = new ArrayDeque<>();
+
+        Model(Case k, boolean cascade) {
+            this.table = k.topology().table(k.dim());
+            this.dim = k.dim();
+            this.mines = k.mines();
+            this.cascade = cascade;
+            this.codes = new int[dim * dim];
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = mines[i] ? -1 : -2;
+            }
+        }
+
+        private int count(int cell) {
+            var n = 0;
+            for (int i = table.start(cell); i < table.end(cell); i++) {
+                n += mines[table.at(i)] ? 1 : 0;
+            }
+            return n;
+        }
+
+        private void record(int[] before) {
+            undos.push(before);
+            redos.clear();
+        }
+
+        // uncovers cell and -- for a zero -- the rest of its opening (flags
+        // and all: zeros are flooded through whatever their state)
+        private int uncover(int cell, boolean[] seen) {
+            var uncovered = 0;
+            var todo = new ArrayDeque<Integer>();
+            todo.push(cell);
+            seen[cell] = true;
+            while (!todo.isEmpty()) {
+                var i = todo.pop();
+                if (codes[i] == -2) {
+                    codes[i] = count(i);
+                    uncovered++;
+                }
+                if (count(i) != 0 || !cascade) {
+                    continue;
+                }
+                for (int k = table.start(i); k < table.end(i); k++) {
+                    if (!seen[table.at(k)]) {
+                        seen[table.at(k)] = true;
+                        todo.push(table.at(k));
+                    }
+                }
+            }
+            return uncovered;
+        }
+
+        @Override public int apply(Op op) {
+            var cell = op.row() * dim + op.col();
+            var before = codes.clone();
+            switch (op.kind()) {
+                case Reveal -> {
+                    if (codes[cell] == -1) {
+                        return -1;
+                    }
+                    if (codes[cell] == -3 || codes[cell] == -4) {
+                        return 0;
+                    }
+                    if (codes[cell] == -2) {
+                        uncover(cell, new boolean[codes.length]);
+                        record(before); // (re-revealing a number changes nothing)
+                    }
+                    return 0;
+                }
+                case Flag -> {
+                    var toggled = switch (codes[cell]) {
+                        case -1 -> -4;
+                        case -2 -> -3;
+                        case -3 -> -2;
+                        case -4 -> -1;
+                        default -> codes[cell];
+                    };
+                    if (toggled == codes[cell]) {
+                        return 0;
+                    }
+                    codes[cell] = toggled;
+                    record(before);
+                    return 1;
+                }
+                case Chord -> {
+                    if (codes[cell] <= 0) {
+                        return 0;
+                    }
+                    var flags = 0;
+                    for (int i = table.start(cell); i < table.end(cell); i++) {
+                        var nb = codes[table.at(i)];
+                        flags += nb == -3 || nb == -4 ? 1 : 0;
+                    }
+                    if (flags != codes[cell]) {
+                        return 0;
+                    }
+                    for (int i = table.start(cell); i < table.end(cell); i++) {
+                        if (codes[table.at(i)] == -1) {
+                            return -1;
+                        }
+                    }
+                    var seen = new boolean[codes.length];
+                    var uncovered = 0;
+                    for (int i = table.start(cell); i < table.end(cell); i++) {
+                        if (codes[table.at(i)] == -2 && !seen[table.at(i)]) {
+                            uncovered += uncover(table.at(i), seen);
+                        }
+                    }
+                    if (uncovered > 0) {
+                        record(before);
+                    }
+                    return uncovered;
+                }
+                case Undo -> {
+                    if (undos.isEmpty()) {
+                        return 0;
+                    }
+                    redos.push(codes);
+                    codes = undos.pop();
+                    return 1;
+                }
+                case Redo -> {
+                    if (redos.isEmpty()) {
+                        return 0;
+                    }
+                    undos.push(codes);
+                    codes = redos.pop();
+                    return 1;
+                }
+            }
+            throw new AssertionError(op);
+        }
+
+        @Override public int code(int row, int col) { return codes[row * dim + col]; }
+        @Override public int adjacentMines(int row, int col) { return count(row * dim + col); }
+
+        @Override public boolean won() {
+            for (var code : codes) {
+                if (code == -2 || code == -3) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // -- running, generating and shrinking cases
+
+    /**
+     * Plays {@code k} on the reference and on {@code alt.apply(k)}, returning
+     * a description of the first divergence (if any).
+     */
+    static Optional<String> diverges(Case k, Function<Case, Engine> alt) {
+        try {
+            Engine ref = new Reference(k.board());
+            var other = alt.apply(k);
+            var step = 0;
+            var check = compare(k.dim(), ref, other);
+            for (var op : k.ops()) {
+                if (check.isPresent()) {
+                    return check.map(s -> "before any move: " + s);
+                }
+                step++;
+                var expected = ref.apply(op);
+                var actual = other.apply(op);
+                if (expected != actual) {
+                    return Optional.of("move " + step + " (" + op + ") returned " + actual + ", expected " + expected);
+                }
+                final var at = step;
+                check = compare(k.dim(), ref, other).map(s -> "after move " + at + " (" + op + "): " + s);
+                if (expected < 0) {
+                    break; // the game's lost
+                }
+            }
+            return check;
+        } catch (RuntimeException e) {
+            return Optional.of("threw " + e);
+        }
+    }
+
+    private static Optional<String> compare(int dim, Engine ref, Engine other) {
+        for (int r = 0; r < dim; r++) {
+            for (int c = 0; c < dim; c++) {
+                if (ref.code(r, c) != other.code(r, c)) {
+                    return Optional.of("tile " + r + "," + c + " is " + other.code(r, c) + ", expected " + ref.code(r, c));
+                }
+                if (ref.adjacentMines(r, c) != other.adjacentMines(r, c)) {
+                    return Optional.of("count at " + r + "," + c + " is " + other.adjacentMines(r, c)
+                            + ", expected " + ref.adjacentMines(r, c));
+                }
+            }
+        }
+        if (ref.won() != other.won()) {
+            return Optional.of("won() is " + other.won());
+        }
+        var expected = ref.render(dim);
+        var actual = other.render(dim);
+        return expected.equals(actual)
+                ? Optional.empty()
+                : Optional.of("rendered\n" + actual + "\nexpected\n" + expected);
+    }
+
+    /** The case generated from {@code seed}, using only moves {@code alt} supports. */
+    static Case generate(long seed, Topology[] topologies, Engine alt) {
+        var rnd = new SplittableRandom(seed);
+        var dim = 1 + rnd.nextInt(10);
+        var topology = topologies[rnd.nextInt(topologies.length)];
+        var density = rnd.nextDouble(0.3);
+        var mines = new boolean[dim * dim];
+        for (int i = 0; i < mines.length; i++) {
+            mines[i] = rnd.nextDouble() < density;
+        }
+        var ops = new ArrayList<Op>();
+        var count = 1 + rnd.nextInt(30);
+        while (ops.size() < count) {
+            var p = rnd.nextInt(100);
+            var kind = p < 45 ? Kind.Reveal : p < 65 ? Kind.Flag : p < 85 ? Kind.Chord : p < 95 ? Kind.Undo : Kind.Redo;
+            if (alt.supports(kind)) {
+                ops.add(new Op(kind, rnd.nextInt(dim), rnd.nextInt(dim)));
+            }
+        }
+        return new Case(dim, topology, mines, List.copyOf(ops));
+    }
+
+    /**
+     * Shrinks failing case {@code k} while it keeps failing: dropping runs
+     * of moves (halving the run length down to single moves), then single
+     * mines, then a first or last row and column
+     * of the board.
+     */
+    static Case shrink(Case k, Function<Case, Engine> alt) {
+        var progress = true;
+        while (progress) {
+            progress = false;
+            for (int len = Math.max(1, k.ops().size() / 2); len >= 1 && !progress; len /= 2) {
+                for (int from = 0; from + len <= k.ops().size(); from++) {
+                    var ops = new ArrayList<>(k.ops().subList(0, from));
+                    ops.addAll(k.ops().subList(from + len, k.ops().size()));
+                    var smaller = new Case(k.dim(), k.topology(), k.mines(), List.copyOf(ops));
+                    if (diverges(smaller, alt).isPresent()) {
+                        k = smaller;
+                        progress = true;
+                        break;
+                    }
+                }
+            }
+            for (int i = 0; i < k.mines().length && !progress; i++) {
+                if (k.mines()[i]) {
+                    var mines = k.mines().clone();
+                    mines[i] = false;
+                    var smaller = new Case(k.dim(), k.topology(), mines, k.ops());
+                    if (diverges(smaller, alt).isPresent()) {
+                        k = smaller;
+                        progress = true;
+                    }
+                }
+            }
+            for (int side = 0; side < 4 && !progress && k.dim() > 1; side++) {
+                var smaller = crop(k, side / 2, side % 2);
+                if (diverges(smaller, alt).isPresent()) {
+                    k = smaller;
+                    progress = true;
+                }
+            }
+        }
+        return k;
+    }
+
+    // drops k's first (offset 1) or last (offset 0) row and likewise
+    // column, along with the moves there
+    private static Case crop(Case k, int rowOffset, int colOffset) {
+        var dim = k.dim() - 1;
+        var mines = new boolean[dim * dim];
+        for (int i = 0; i < mines.length; i++) {
+            mines[i] = k.mines()[(i / dim + rowOffset) * k.dim() + i % dim + colOffset];
+        }
+        var ops = k.ops().stream()
+                .map(o -> new Op(o.kind(), o.row() - rowOffset, o.col() - colOffset))
+                .filter(o -> o.row() >= 0 && o.col() >= 0 && o.row() < dim && o.col() < dim)
+                .toList();
+        return new Case(dim, k.topology(), mines, ops);
+    }
+
+    // runs games seeded 0..games-1, failing with the first one shrunk
+    private static void check(int games, Topology[] topologies, Function<Case, Engine> alt) {
+        var probe = alt.apply(Empty);
+        for (long seed = 0; seed < games; seed++) {
+            var k = generate(seed, topologies, probe);
+            if (diverges(k, alt).isPresent()) {
+                var minimal = shrink(k, alt);
+                Assertions.fail("seed " + seed + " diverges; shrunk to " + minimal
+                        + "\n" + diverges(minimal, alt).get());
+            }
+        }
+    }
+
+    @Test public void testAgainstModel() {
+        check(3000, Topology.values(), k -> new Model(k, true));
+    }
+
+    @Test public void testAgainstScratchBoard() {
+        check(3000, new Topology[] {Topology.Square}, k -> new ScratchEngine(k.dim(), k.mines()));
+    }
+
+    @Test public void testAgainstBatchedMoves() {
+        check(3000, Topology.values(), k -> new Batched(k.board()));
+    }
+
+    @Test public void testWholeBatchMatchesMoveByMove() {
+        // a case's reveals played as one batch end up where playing them
+        // one at a time (up to the first mine) does
+        var probe = new Batched(Empty.board());
+        for (long seed = 0; seed < 3000; seed++) {
+            var k = generate(seed, Topology.values(), probe);
+            var reveals = k.ops().stream().filter(op -> op.kind() == Kind.Reveal).toList();
+            var moves = new int[2 * reveals.size()];
+            for (int i = 0; i < reveals.size(); i++) {
+                moves[2 * i] = reveals.get(i).row();
+                moves[2 * i + 1] = reveals.get(i).col();
+            }
+            var batched = new MinesweeperGame(k.board());
+            var result = batched.applyMoves(moves);
+
+            var ref = new MinesweeperGame(k.board());
+            var firstLoss = -1;
+            for (int i = 0; i < reveals.size(); i++) {
+                var op = reveals.get(i);
+                var expected = switch (ref.revealSquare(op.row(), op.col())) {
+                    case TileType.Mine _ -> BatchResult.Lost;
+                    case TileType.Flagged _ -> BatchResult.Flagged;
+                    case TileType.Uncovered(var ct) -> (byte) ct;
+                    case TileType.Hidden _ -> throw new AssertionError("reveal returned a hidden tile");
+                };
+                Assertions.assertEquals(expected, result.outcomes()[i], "seed " + seed + ", move " + i);
+                if (expected == BatchResult.Lost) {
+                    firstLoss = i;
+                    break;
+                }
+                ref.advanceGame(op.row(), op.col());
+            }
+            for (int i = firstLoss + 1; firstLoss >= 0 && i < reveals.size(); i++) {
+                Assertions.assertEquals(BatchResult.NotPlayed, result.outcomes()[i], "seed " + seed);
+            }
+            Assertions.assertEquals(firstLoss, result.firstLoss(), "seed " + seed);
+            Assertions.assertEquals(ref.renderGameState(), batched.renderGameState(), "seed " + seed);
+            Assertions.assertEquals(ref.inWinState(), result.won(), "seed " + seed);
+        }
+    }
+
+    @Test public void testShrinksToMinimalCase() {
+        // a model that forgets to open up zeros: the smallest witness is a
+        // 2x2 board without mines and a single reveal
+        Function<Case, Engine> broken = k -> new Model(k, false);
+        var probe = broken.apply(Empty);
+        var failing = new ArrayList<Case>();
+        for (long seed = 0; failing.isEmpty(); seed++) {
+            var k = generate(seed, new Topology[] {Topology.Square}, probe);
+            if (diverges(k, broken).isPresent()) {
+                failing.add(k);
+            }
+        }
+        var minimal = shrink(failing.getFirst(), broken);
+        Assertions.assertEquals(2, minimal.dim(), minimal.toString());
+        Assertions.assertEquals(0, minimal.mineCount());
+        Assertions.assertEquals(List.of(Kind.Reveal), minimal.ops().stream().map(Op::kind).toList());
+    }
+}
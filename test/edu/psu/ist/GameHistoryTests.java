@@ -0,0 +1,88 @@
+package edu.psu.ist;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public final class GameHistoryTests {
+
+    private static SquareBoard board() {
+        var b = new SquareBoard.ValidatingBoardBuilder() //
+                .row('_', '*', '_') //
+                .row('_', '_', '_') //
+                .row('_', '_', '*').build();
+        Assertions.assertTrue(b.isOk());
+        return b.get();
+    }
+
+    @Test public void testUndoRedo01() {
+        var g = new MinesweeperGame(board());
+        var initial = g.toString();
+        Assertions.assertFalse(g.undo());
+
+        g.advanceGame(0, 0);
+        var afterFirst = g.toString();
+        g.advanceGame(2, 0);
+        var afterSecond = g.toString();
+
+        Assertions.assertTrue(g.undo());
+        Assertions.assertEquals(afterFirst, g.toString());
+        Assertions.assertTrue(g.undo());
+        Assertions.assertEquals(initial, g.toString());
+        Assertions.assertFalse(g.undo());
+
+        Assertions.assertTrue(g.redo());
+        Assertions.assertTrue(g.redo());
+        Assertions.assertEquals(afterSecond, g.toString());
+        Assertions.assertFalse(g.redo());
+    }
+
+    @Test public void testNewMoveClearsRedo() {
+        var g = new MinesweeperGame(board());
+        g.advanceGame(0, 0);
+        g.undo();
+        g.advanceGame(1, 1);
+        Assertions.assertFalse(g.redo());
+        Assertions.assertEquals("""
+                _ * _
+                _ 2 _
+                _ _ *""", g.toString());
+    }
+
+    @Test public void testCompactedHistoryStillUndoes() {
+        // a budget this small forces all but the newest move into deltas
+        var g = new MinesweeperGame(board(), 1);
+        var initial = g.toString();
+        g.advanceGame(0, 0);
+        g.advanceGame(0, 2);
+        g.advanceGame(1, 0);
+        // ...and then evicts them (keeping just the newest snapshot)
+        Assertions.assertTrue(g.undo());
+        Assertions.assertFalse(g.undo());
+        Assertions.assertTrue(g.redo());
+
+        var roomy = new MinesweeperGame(board(), 600);
+        roomy.advanceGame(0, 0);
+        roomy.advanceGame(0, 2);
+        roomy.advanceGame(1, 0);
+        while (roomy.undo()) { }
+        Assertions.assertEquals(initial, roomy.toString());
+    }
+
+    @Test public void testBudgetCompactsBeforeEvicting() {
+        var h = new GameHistory(600);
+        var b0 = board();
+        var b = b0;
+        for (int col = 0; col < 3; col++) {
+            var next = b.withUpdatedTile(1, col, TileType.un(1));
+            h.record(b, next, io.vavr.collection.Vector.of(
+                    new TileChange(1, col, b.tileAt(1, col), TileType.un(1))));
+            b = next;
+        }
+        Assertions.assertEquals(3, h.undoDepth());
+        Assertions.assertTrue(h.retainedBytes() <= 600);
+        while (h.canUndo()) {
+            b = h.undo(b).board();
+        }
+        Assertions.assertEquals(b0.toString(), b.toString());
+    }
+}
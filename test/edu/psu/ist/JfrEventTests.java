@@ -0,0 +1,81 @@
+package edu.psu.ist;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+
+public final class JfrEventTests {
+
+    @Test public void testMoveAndBoardEventsRecorded() throws Exception {
+        var b1 = new SquareBoard.ValidatingBoardBuilder() //
+                .row('_', '*') //
+                .row('_', '_').build();
+        Assertions.assertTrue(b1.isOk());
+
+        var file = Files.createTempFile("minesweeper", ".jfr");
+        try (var rec = new Recording()) {
+            rec.enable("edu.psu.ist.Move").withoutThreshold();
+            rec.enable("edu.psu.ist.BoardUpdate").withoutThreshold();
+            rec.enable("edu.psu.ist.BoardCompute").withoutThreshold();
+            rec.start();
+
+            var g = new MinesweeperGame(b1.get());
+            g.advanceGame(0, 0);
+            g.renderGameState(); // (counts mines with a fold)
+
+            rec.stop();
+            rec.dump(file);
+        }
+        var events = RecordingFile.readAllEvents(file);
+        Files.deleteIfExists(file);
+
+        // one advance wrapping one reveal
+        var moves = events.stream()
+                .filter(e -> e.getEventType().getName().equals("edu.psu.ist.Move"))
+                .map(e -> e.getString("operation"))
+                .sorted().toList();
+        Assertions.assertEquals(java.util.List.of("advance", "reveal"), moves);
+
+        RecordedEvent update = events.stream()
+                .filter(e -> e.getEventType().getName().equals("edu.psu.ist.BoardUpdate"))
+                .findFirst().orElseThrow();
+        Assertions.assertEquals(2, update.getInt("dimension"));
+        Assertions.assertEquals(1, update.getInt("cellsTouched"));
+
+        RecordedEvent fold = events.stream()
+                .filter(e -> e.getEventType().getName().equals("edu.psu.ist.BoardCompute"))
+                .findFirst().orElseThrow();
+        Assertions.assertEquals(4, fold.getInt("cellsTouched"));
+    }
+
+    @Test public void testChordEventRecorded() throws Exception {
+        var b1 = new SquareBoard.ValidatingBoardBuilder() //
+                .row("*__") //
+                .row("___") //
+                .row("___").build();
+        var g = new MinesweeperGame(b1.get());
+        g.advanceGame(1, 1);
+        g.toggleFlag(0, 0);
+
+        var file = Files.createTempFile("minesweeper", ".jfr");
+        try (var rec = new Recording()) {
+            rec.enable("edu.psu.ist.Move").withoutThreshold();
+            rec.start();
+            Assertions.assertEquals(7, g.chord(1, 1));
+            rec.stop();
+            rec.dump(file);
+        }
+        var events = RecordingFile.readAllEvents(file);
+        Files.deleteIfExists(file);
+
+        RecordedEvent chord = events.stream()
+                .filter(e -> e.getEventType().getName().equals("edu.psu.ist.Move"))
+                .findFirst().orElseThrow();
+        Assertions.assertEquals("chord", chord.getString("operation"));
+        Assertions.assertEquals(1 + 8 + 7, chord.getInt("cellsTouched"));
+    }
+}
@@ -124,4 +124,150 @@ public final class MinesweeperGameTests {
                 """.trim(), g.renderGameState());
         Assertions.assertTrue(g.inWinState());
     }
+
+    @Test public void test06() {
+        // uncovering a square with no adjacent mines uncovers its opening
+        var b1 = new SquareBoard.ValidatingBoardBuilder() //
+                .row('*', '_', '_', '_') //
+                .row('_', '_', '_', '_') //
+                .row('_', '_', '*', '_') //
+                .row('_', '_', '_', '_').build();
+        Assertions.assertTrue(b1.isOk());
+
+        var g = new MinesweeperGame(b1.get());
+        g.advanceGame(0, 3);
+        Assertions.assertEquals("""
+                * 1 0 0
+                _ 2 1 1
+                _ _ * _
+                _ _ _ _
+                mine ct: 2
+                hidden ct: 8
+                """.trim(), g.renderGameState());
+
+        g.advanceGame(3, 0);
+        Assertions.assertEquals("""
+                * 1 0 0
+                1 2 1 1
+                0 1 * _
+                0 1 _ _
+                mine ct: 2
+                hidden ct: 3
+                """.trim(), g.renderGameState());
+
+        // ...and undoing them covers the whole openings back up
+        g.undo();
+        g.undo();
+        Assertions.assertEquals(b1.get().toString(), g.toString());
+    }
+
+    @Test public void test07() {
+        // flags + chording a satisfied number as one move
+        var b1 = new SquareBoard.ValidatingBoardBuilder() //
+                .row("*__") //
+                .row("___") //
+                .row("___").build();
+        var g = new MinesweeperGame(b1.get());
+        g.advanceGame(1, 1);
+        Assertions.assertEquals(0, g.chord(1, 1)); // not yet satisfied
+        Assertions.assertTrue(g.toggleFlag(0, 0));
+        Assertions.assertFalse(g.toggleFlag(1, 1)); // uncovered
+
+        Assertions.assertEquals(7, g.chord(1, 1));
+        Assertions.assertTrue(g.inWinState());
+        Assertions.assertEquals("""
+                ! 1 0
+                1 1 0
+                0 0 0
+                mine ct: 1
+                hidden ct: 0
+                """.trim(), g.renderGameState());
+
+        // the chord was a single (undo-able) move; flags survive the file format
+        g.undo();
+        Assertions.assertEquals("! _ _\n_ 1 _\n_ _ _", g.toString());
+        var reloaded = Cli.loadFromString(g.toString().replace(" ", ""));
+        Assertions.assertEquals(g.toString(), reloaded.get().toString());
+    }
+
+    @Test public void test08() {
+        // chording around a wrongly placed flag uncovers the mine: a loss
+        var b1 = new SquareBoard.ValidatingBoardBuilder() //
+                .row("*__") //
+                .row("___") //
+                .row("___").build();
+        var g = new MinesweeperGame(b1.get());
+        g.advanceGame(1, 1);
+        g.toggleFlag(0, 1);
+        var before = g.toString();
+        Assertions.assertEquals(-1, g.chord(1, 1));
+        Assertions.assertEquals(before, g.toString());
+        Assertions.assertFalse(g.inWinState());
+
+        Assertions.assertTrue(g.toggleFlag(0, 1)); // unflagging restores the tile
+        Assertions.assertEquals("* _ _\n_ 1 _\n_ _ _", g.toString());
+    }
+
+    @Test public void test09() {
+        // a batch of moves: per-move outcomes, uncovered as a single move
+        var b1 = new SquareBoard.ValidatingBoardBuilder() //
+                .row('*', '_', '_', '_') //
+                .row('_', '_', '_', '_') //
+                .row('_', '_', '*', '_') //
+                .row('_', '_', '_', '_').build();
+        var g = new MinesweeperGame(b1.get());
+        g.toggleFlag(1, 0);
+        var result = g.applyMoves(new int[] {0, 3, 1, 0, 0, 2, 3, 0, 2, 3});
+        Assertions.assertArrayEquals(new byte[] {0, BatchResult.Flagged, 0, 0, 1}, result.outcomes());
+        Assertions.assertFalse(result.lost());
+        Assertions.assertFalse(result.won());
+        Assertions.assertEquals("""
+                * 1 0 0
+                F 2 1 1
+                0 1 * 1
+                0 1 _ _
+                mine ct: 2
+                hidden ct: 3
+                """.trim(), g.renderGameState());
+
+        g.undo();
+        Assertions.assertEquals("* _ _ _\nF _ _ _\n_ _ * _\n_ _ _ _", g.toString());
+    }
+
+    @Test public void test10() {
+        // a batch stops at its first mine; winning is noticed without a scan
+        var b1 = new SquareBoard.ValidatingBoardBuilder() //
+                .row('_', '*') //
+                .row('_', '_').build();
+        var g = new MinesweeperGame(b1.get());
+        var lost = g.applyMoves(new int[] {0, 0, 0, 1, 1, 0});
+        Assertions.assertArrayEquals(new byte[] {1, BatchResult.Lost, BatchResult.NotPlayed}, lost.outcomes());
+        Assertions.assertEquals(1, lost.firstLoss());
+        Assertions.assertEquals("1 *\n_ _", g.toString());
+
+        var won = g.applyMoves(new int[] {1, 0, 1, 1, 1, 1});
+        Assertions.assertArrayEquals(new byte[] {1, 1, 1}, won.outcomes());
+        Assertions.assertTrue(won.won());
+        Assertions.assertTrue(g.inWinState());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> g.applyMoves(new int[] {0}));
+    }
+
+    @Test public void test11() {
+        // off-board batches are rejected whole; re-revealing records no undo step
+        var b1 = new SquareBoard.ValidatingBoardBuilder() //
+                .row('_', '*') //
+                .row('_', '_').build();
+        var g = new MinesweeperGame(b1.get());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> g.applyMoves(new int[] {0, 0, 2, 0}));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> g.applyMoves(new int[] {1, 0, 1, -1}));
+        Assertions.assertEquals("_ *\n_ _", g.toString());
+        Assertions.assertFalse(g.undo());
+
+        g.advanceGame(0, 0);
+        g.advanceGame(0, 0);
+        g.applyMoves(new int[] {0, 0});
+        Assertions.assertTrue(g.undo());
+        Assertions.assertEquals("_ *\n_ _", g.toString());
+        Assertions.assertFalse(g.undo());
+    }
 }
@@ -0,0 +1,59 @@
+package edu.psu.ist;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+public final class OpeningIndexTests {
+
+    @Test public void testOpeningsOfSmallBoard() {
+        var b = new SquareBoard.ValidatingBoardBuilder() //
+                .row("*___") //
+                .row("____") //
+                .row("__*_") //
+                .row("____").build();
+        Assertions.assertTrue(b.isOk());
+        var idx = b.get().openings();
+
+        // the zeros at (0,2),(0,3) and at (2,0),(3,0) form two openings
+        Assertions.assertEquals(2, idx.openingCount());
+        Assertions.assertEquals(0, idx.openingAt(0, 3));
+        Assertions.assertEquals(1, idx.openingAt(3, 0));
+        Assertions.assertEquals(-1, idx.openingAt(0, 0)); // mine
+        Assertions.assertEquals(-1, idx.openingAt(1, 1)); // a '2'
+        Assertions.assertEquals(2, idx.adjacentMines(1, 1));
+
+        // the first is bordered by (0,1),(1,1),(1,2) and (1,3)
+        var cells = new ArrayList<Integer>();
+        idx.forEachCell(0, cells::add);
+        cells.sort(Integer::compare);
+        Assertions.assertEquals(java.util.List.of(1, 2, 3, 5, 6, 7), cells);
+    }
+
+    @Test public void testStripedLabelingMatchesSequential() {
+        var rnd = new Random(42);
+        var dim = 300;
+        var mines = new boolean[dim * dim];
+        for (int i = 0; i < mines.length; i++) {
+            mines[i] = rnd.nextInt(100) < 8;
+        }
+        for (var topology : Topology.values()) {
+            var table = topology.table(dim);
+            var seq = OpeningIndex.build(table, mines, 1);
+            for (int stripes : new int[]{2, 7, 16, 150}) {
+                var par = OpeningIndex.build(table, mines, stripes);
+                Assertions.assertEquals(seq.openingCount(), par.openingCount(), topology.name());
+                for (int r = 0; r < dim; r++) {
+                    for (int c = 0; c < dim; c++) {
+                        Assertions.assertEquals(seq.openingAt(r, c), par.openingAt(r, c));
+                    }
+                }
+                for (int k = 0; k < seq.openingCount(); k++) {
+                    Assertions.assertEquals(seq.openingSize(k), par.openingSize(k));
+                }
+            }
+        }
+    }
+}
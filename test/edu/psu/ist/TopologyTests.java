@@ -0,0 +1,98 @@
+package edu.psu.ist;
+
+import edu.psu.ist.solver.TopologySolver;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public final class TopologyTests {
+
+    @Test public void testNeighbourDegrees() {
+        var square = Topology.Square.table(5);
+        Assertions.assertEquals(3, square.degree(0));      // corner
+        Assertions.assertEquals(5, square.degree(2));      // edge
+        Assertions.assertEquals(8, square.degree(12));     // interior
+
+        var torus = Topology.Toroidal.table(5);
+        for (int i = 0; i < torus.cellCount(); i++) {
+            Assertions.assertEquals(8, torus.degree(i));
+        }
+        // a 2x2 torus wraps onto the same cells: each is listed once
+        Assertions.assertEquals(3, Topology.Toroidal.table(2).degree(0));
+
+        Assertions.assertEquals(6, Topology.Hexagonal.table(5).degree(12));
+        Assertions.assertEquals(2, Topology.Knight.table(5).degree(0));
+        Assertions.assertEquals(8, Topology.Knight.table(5).degree(12));
+
+        // tables are shared per (topology, dimension)
+        Assertions.assertSame(square, Topology.Square.table(5));
+    }
+
+    @Test public void testToroidalBoardWraps() {
+        var rows = new String[]{"*____", "_____", "_____", "_____", "_____"};
+        var squareB = new SquareBoard.ValidatingBoardBuilder();
+        var torusB = new SquareBoard.ValidatingBoardBuilder().topology(Topology.Toroidal);
+        for (var r : rows) {
+            squareB.row(r);
+            torusB.row(r);
+        }
+        var square = squareB.build().get();
+        var torus = torusB.build().get();
+        Assertions.assertNotEquals(square, torus);
+
+        Assertions.assertEquals(0, new MinesweeperGame(square).adjacentMineCount(4, 4));
+        Assertions.assertEquals(1, new MinesweeperGame(torus).adjacentMineCount(4, 4));
+        Assertions.assertEquals(0, square.openings().openingAt(4, 4));
+        Assertions.assertEquals(-1, torus.openings().openingAt(4, 4));
+
+        // one opening either way: every non-mine cell (zeros + border)
+        Assertions.assertEquals(1, torus.openings().openingCount());
+        Assertions.assertEquals(24, torus.openings().openingSize(0));
+
+        var g = new MinesweeperGame(torus);
+        g.advanceGame(2, 2);
+        Assertions.assertTrue(g.inWinState());
+        Assertions.assertTrue(g.toString().startsWith("* 1 0 0 1"));
+    }
+
+    @Test public void testHexagonalSolver() {
+        var b = new SquareBoard.ValidatingBoardBuilder().topology(Topology.Hexagonal) //
+                .row("___") //
+                .row("_0_") //
+                .row("___").build().get();
+        // (odd) row 1 is shifted right: (0,0) and (2,0) aren't neighbours
+        var d = new TopologySolver().deduce(b, 1, 1);
+        Assertions.assertArrayEquals(new int[]{1, 2, 3, 5, 7, 8}, d.safeCells());
+        Assertions.assertEquals(0, d.mineCells().length);
+    }
+
+    @Test public void testKnightSolver() {
+        var b = new SquareBoard.ValidatingBoardBuilder().topology(Topology.Knight) //
+                .row("1__") //
+                .row("__0") //
+                .row("_*_").build().get();
+        // (1,2)'s 0 clears (2,0); (0,0)'s 1 must then be (2,1)
+        var d = new TopologySolver().deduce(b, 0, 0);
+        Assertions.assertArrayEquals(new int[]{6}, d.safeCells());
+        Assertions.assertArrayEquals(new int[]{7}, d.mineCells());
+    }
+
+    @Test public void testSolverReusedAcrossBoards() {
+        // one solver's scratch carries over between boards (and sizes)
+        var solver = new TopologySolver();
+        var hex = new SquareBoard.ValidatingBoardBuilder().topology(Topology.Hexagonal) //
+                .row("___") //
+                .row("_0_") //
+                .row("___").build().get();
+        var knight = new SquareBoard.ValidatingBoardBuilder().topology(Topology.Knight) //
+                .row("1___") //
+                .row("__0_") //
+                .row("_*__") //
+                .row("____").build().get();
+        for (int round = 0; round < 3; round++) {
+            Assertions.assertArrayEquals(new int[]{1, 2, 3, 5, 7, 8}, solver.deduce(hex, 1, 1).safeCells());
+            var d = solver.deduce(knight, 0, 0);
+            Assertions.assertArrayEquals(new TopologySolver().deduce(knight, 0, 0).safeCells(), d.safeCells());
+            Assertions.assertArrayEquals(new TopologySolver().deduce(knight, 0, 0).mineCells(), d.mineCells());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package edu.psu.ist.archive;
+
+import edu.psu.ist.Cli;
+import edu.psu.ist.MinesweeperGame;
+import edu.psu.ist.SquareBoard;
+import edu.psu.ist.Topology;
+import edu.psu.ist.generator.RandomBoards;
+import edu.psu.ist.immutableadts.Result;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public final class ArchiveTests {
+
+    private static ArrayList<SquareBoard> corpus() {
+        var boards = new ArrayList<SquareBoard>();
+        for (int i = 0; i < 300; i++) {
+            boards.add(RandomBoards.random(1 + i % 30, (i % 30) * (i % 5) / 4, i));
+        }
+        // a played board: uncovered cells, flags over mines and safe cells
+        var g = new MinesweeperGame(RandomBoards.random(9, 10, 99));
+        g.advanceGame(4, 4);
+        g.toggleFlag(0, 0);
+        g.toggleFlag(8, 8);
+        boards.add(Cli.loadFromString(g.toString().replace(" ", "")).get());
+        // ...and a non-square topology
+        boards.add(new SquareBoard.ValidatingBoardBuilder().topology(Topology.Hexagonal) //
+                .row("_*_") //
+                .row("1__") //
+                .row("F_!").build().get());
+        return boards;
+    }
+
+    @Test public void testRoundTripRandomAccessAndStreaming(@TempDir Path dir) throws IOException {
+        var boards = corpus();
+        for (var rle : new boolean[]{false, true}) {
+            var file = dir.resolve("boards-" + rle + ".swa");
+            try (var w = ArchiveWriter.create(file, rle)) {
+                for (var b : boards) {
+                    w.append(b);
+                }
+            }
+            try (var r = ArchiveReader.open(file).get()) {
+                Assertions.assertEquals(boards.size(), r.size());
+                for (int id = boards.size() - 1; id >= 0; id -= 7) {
+                    Assertions.assertEquals(boards.get(id), r.board(id).get());
+                }
+                Assertions.assertTrue(r.board(boards.size()).isError());
+            }
+            try (var s = ArchiveStream.open(file).get()) {
+                var i = 0;
+                while (s.hasNext()) {
+                    Assertions.assertEquals(boards.get(i++), s.next().get());
+                }
+                Assertions.assertEquals(boards.size(), i);
+            }
+        }
+    }
+
+    @Test public void testArchivesAreCompact(@TempDir Path dir) throws IOException {
+        var file = dir.resolve("fresh.swa");
+        try (var w = ArchiveWriter.create(file, true)) {
+            for (int i = 0; i < 1000; i++) {
+                w.append(RandomBoards.random(16, 40, i));
+            }
+        }
+        // a 16x16 mine plane is 32 bytes (+4 of record header, +8 of index)
+        Assertions.assertTrue(Files.size(file) <= 1000 * (32 + 4 + 8) + 28, "size: " + Files.size(file));
+    }
+
+    @Test public void testRejectsIncompleteArchives(@TempDir Path dir) throws IOException {
+        var file = dir.resolve("cut.swa");
+        try (var w = ArchiveWriter.create(file, false)) {
+            w.append(RandomBoards.random(8, 10, 1));
+        }
+        var bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+        Assertions.assertTrue(ArchiveReader.open(file) instanceof Result.Err<?, ?>);
+        Assertions.assertTrue(ArchiveStream.open(file).isError());
+    }
+}
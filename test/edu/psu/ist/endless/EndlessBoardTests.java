@@ -0,0 +1,89 @@
+package edu.psu.ist.endless;
+
+import edu.psu.ist.TileType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public final class EndlessBoardTests {
+
+    @Test public void testMinesAreDeterministicAnywhere() {
+        var a = new EndlessBoard(7, 0.2);
+        var b = new EndlessBoard(7, 0.2);
+        var other = new EndlessBoard(8, 0.2);
+        var differs = false;
+        for (long r = Long.MAX_VALUE - 70; r < Long.MAX_VALUE - 40; r++) {
+            for (long c = Long.MIN_VALUE; c < Long.MIN_VALUE + 30; c++) {
+                Assertions.assertEquals(a.tileAt(r, c), b.tileAt(r, c));
+                differs |= !a.tileAt(r, c).equals(other.tileAt(r, c));
+            }
+        }
+        Assertions.assertTrue(differs);
+    }
+
+    @Test public void testNeighbourCountsCrossChunks() {
+        var field = new MineField(3, 0.3);
+        var board = new EndlessBoard(field, 4, 1);
+        for (long[] rc : new long[][]{{0, 0}, {-1, -1}, {63, 64}, {-64, 127}}) {
+            var expected = 0;
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    if ((dr != 0 || dc != 0) && field.isMine(rc[0] + dr, rc[1] + dc)) {
+                        expected++;
+                    }
+                }
+            }
+            Assertions.assertEquals(expected, board.adjacentMines(rc[0], rc[1]));
+            if (!field.isMine(rc[0], rc[1])) {
+                Assertions.assertEquals(TileType.un(expected), board.reveal(rc[0], rc[1]));
+            }
+        }
+    }
+
+    @Test public void testCleanChunksAreBoundedAndDirtyKept() {
+        var board = new EndlessBoard(new MineField(1, 0.0), 8, 100);
+        Assertions.assertEquals(TileType.un(0), board.reveal(5, 5));
+        Assertions.assertEquals(100, board.revealedCount()); // cascade capped
+        Assertions.assertEquals(1, board.dirtyChunks());
+
+        // roam over a thousand chunks...
+        for (long k = 1; k <= 1000; k++) {
+            board.tileAt(k * 64 * 1_000_003, -k * 64);
+        }
+        Assertions.assertTrue(board.cleanChunks() <= 8);
+        // ...without losing what was revealed
+        Assertions.assertEquals(1, board.dirtyChunks());
+        Assertions.assertTrue(board.isRevealed(5, 5));
+        Assertions.assertEquals("0", board.render(5, 5, 1, 1));
+    }
+
+    @Test public void testCappedCascadeIsResumed() {
+        var board = new EndlessBoard(new MineField(1, 0.0), 8, 100);
+        board.reveal(0, 0);
+        Assertions.assertEquals(100, board.revealedCount());
+        Assertions.assertTrue(board.pendingCascade() > 0);
+
+        // the next reveal -- even of an already revealed cell -- carries on
+        board.reveal(0, 0);
+        Assertions.assertEquals(200, board.revealedCount());
+        Assertions.assertEquals(100, board.continueCascade());
+        Assertions.assertEquals(300, board.revealedCount());
+
+        // step by step, a (finite) opening ends up as it does uncapped
+        var field = new MineField(5, 0.15);
+        var capped = new EndlessBoard(field, 8, 4);
+        var uncapped = new EndlessBoard(field, 8, EndlessBoard.DefaultMaxCascade);
+        long zero = 0;
+        while (field.isMine(0, zero) || uncapped.adjacentMines(0, zero) != 0) {
+            zero++;
+        }
+        uncapped.reveal(0, zero);
+        capped.reveal(0, zero);
+        while (capped.pendingCascade() > 0) {
+            Assertions.assertTrue(capped.continueCascade() <= 4);
+        }
+        Assertions.assertEquals(0, uncapped.pendingCascade());
+        Assertions.assertTrue(uncapped.revealedCount() > 4);
+        Assertions.assertEquals(uncapped.revealedCount(), capped.revealedCount());
+        Assertions.assertEquals(uncapped.render(-20, zero - 20, 40, 40), capped.render(-20, zero - 20, 40, 40));
+    }
+}
@@ -0,0 +1,120 @@
+package edu.psu.ist.events;
+
+import edu.psu.ist.MinesweeperGame;
+import edu.psu.ist.SquareBoard;
+import edu.psu.ist.TileChange;
+import edu.psu.ist.TileType;
+import io.vavr.collection.Vector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+public final class DeltaPublisherTests {
+
+    private static SquareBoard board() {
+        var b = new SquareBoard.ValidatingBoardBuilder() //
+                .row("*___") //
+                .row("____") //
+                .row("__*_") //
+                .row("____").build();
+        Assertions.assertTrue(b.isOk());
+        return b.get();
+    }
+
+    /** A subscriber that requests one delta each time the test releases a permit. */
+    private static final class SlowSubscriber implements Flow.Subscriber<BoardDelta> {
+        final List<BoardDelta> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        final Semaphore arrived = new Semaphore(0);
+        Flow.Subscription sub;
+
+        @Override public void onSubscribe(Flow.Subscription s) {
+            sub = s;
+        }
+
+        @Override public void onNext(BoardDelta d) {
+            received.add(d);
+            arrived.release();
+        }
+
+        @Override public void onError(Throwable t) {}
+
+        @Override public void onComplete() {
+            completed.countDown();
+        }
+    }
+
+    @Test public void testGamePublishesMoveDeltas() throws Exception {
+        var g = new MinesweeperGame(board());
+        var sub = new SlowSubscriber();
+        g.deltas().subscribe(sub);
+        sub.sub.request(Long.MAX_VALUE);
+
+        g.advanceGame(1, 0); // a '1'
+        g.advanceGame(0, 3); // an opening
+        g.undo();
+        Assertions.assertTrue(sub.arrived.tryAcquire(3, 5, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(List.of(
+                new TileChange(1, 0, TileType.hidden(), TileType.un(1))),
+                sub.received.get(0).changes().toJavaList());
+        Assertions.assertEquals(6, sub.received.get(1).changes().size());
+        // the undo re-hides the opening
+        Assertions.assertTrue(sub.received.get(2).changes()
+                .forAll(c -> c.after() == TileType.hidden()));
+        Assertions.assertEquals(3, sub.received.get(2).lastMove());
+    }
+
+    @Test public void testSlowSubscriberGetsCoalescedDeltas() throws Exception {
+        var start = board();
+        var publisher = new DeltaPublisher(Runnable::run, 2);
+        var sub = new SlowSubscriber();
+        publisher.subscribe(sub);
+
+        // 10 moves published before the subscriber asks for anything
+        var b = start;
+        for (int i = 0; i < 10; i++) {
+            var change = new TileChange(3, i % 4, b.tileAt(3, i % 4), TileType.un(i));
+            b = b.withUpdatedTile(3, i % 4, change.after());
+            publisher.publish(BoardDelta.of(i + 1, Vector.of(change), b));
+        }
+        publisher.close();
+        sub.sub.request(Long.MAX_VALUE);
+        Assertions.assertTrue(sub.completed.await(5, TimeUnit.SECONDS));
+
+        // the buffer of 2 forced moves 2..10 into one delta
+        Assertions.assertEquals(2, sub.received.size());
+        Assertions.assertEquals(1, sub.received.get(0).lastMove());
+        Assertions.assertEquals(2, sub.received.get(1).firstMove());
+        Assertions.assertEquals(10, sub.received.get(1).lastMove());
+        Assertions.assertEquals(4, sub.received.get(1).changes().size()); // one per cell
+
+        // replaying what was received reproduces the final board
+        var replayed = start;
+        for (var d : sub.received) {
+            replayed = replayed.withUpdatedTiles(d.changes());
+        }
+        Assertions.assertEquals(b, replayed);
+    }
+
+    @Test public void testCoalescedRunDropsRevertedCells() {
+        var start = board();
+        var first = BoardDelta.of(1, Vector.of(new TileChange(1, 1, TileType.hidden(), TileType.un(2))),
+                start.withUpdatedTile(1, 1, TileType.un(2)));
+        var moved = first.board().withUpdatedTile(3, 3, TileType.un(0));
+        var last = BoardDelta.of(3, Vector.of(new TileChange(1, 1, TileType.un(2), TileType.hidden())),
+                moved.withUpdatedTile(1, 1, TileType.hidden()));
+
+        var run = BoardDelta.between(start, first, last);
+        Assertions.assertEquals(1, run.firstMove());
+        Assertions.assertEquals(3, run.lastMove());
+        Assertions.assertEquals(List.of(new TileChange(3, 3, TileType.hidden(), TileType.un(0))),
+                run.changes().toJavaList());
+    }
+}
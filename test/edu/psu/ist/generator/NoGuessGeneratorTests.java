@@ -0,0 +1,59 @@
+package edu.psu.ist.generator;
+
+import edu.psu.ist.MinesweeperGame;
+import edu.psu.ist.TileType;
+import edu.psu.ist.solver.LocalPatternSolver;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+public final class NoGuessGeneratorTests {
+
+    @Test public void testGeneratedBoardsAreDeterministicAcrossThreadCounts() {
+        var solver = new LocalPatternSolver();
+        var one = new NoGuessGenerator(1, solver).generate(9, 10, 4, 4, 5, 7L, 100_000);
+        var four = new NoGuessGenerator(4, solver).generate(9, 10, 4, 4, 5, 7L, 100_000);
+        Assertions.assertEquals(5, one.size());
+        Assertions.assertEquals(one, four);
+
+        for (var b : one) {
+            Assertions.assertEquals(10, b.compute(0, (t, acc) -> t.isMine() ? acc + 1 : acc));
+            // the first click always opens up
+            var g = new MinesweeperGame(b);
+            Assertions.assertEquals(TileType.un(0), g.revealSquare(4, 4));
+        }
+    }
+
+    @Test public void testGiveUpAfterMaxCandidates() {
+        // only the first 20 candidates get checked: far too few for 100 boards
+        var solver = new LocalPatternSolver();
+        var one = new NoGuessGenerator(1, solver).generate(9, 10, 4, 4, 100, 1L, 20);
+        var three = new NoGuessGenerator(3, solver).generate(9, 10, 4, 4, 100, 1L, 20);
+        Assertions.assertTrue(one.size() < 20);
+        Assertions.assertEquals(one, three);
+    }
+
+    @Test public void testMineCountMustFitOutsideTheFirstClick() {
+        var gen = new NoGuessGenerator(1, new LocalPatternSolver());
+        Assertions.assertEquals(12, NoGuessGenerator.maxMines(4, 0, 0));
+        Assertions.assertEquals(7, NoGuessGenerator.maxMines(4, 1, 1));
+        // every cell outside the corner block a mine: cleared by the first click
+        Assertions.assertEquals(1, gen.generate(4, 12, 0, 0, 1, 1L, 10).size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> gen.generate(4, 13, 0, 0, 1, 1L, 10));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> gen.generate(4, -1, 0, 0, 1, 1L, 10));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> gen.generate(4, 3, 4, 0, 1, 1L, 10));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> gen.generate(4, 3, 0, -1, 1, 1L, 10));
+    }
+
+    @Test public void testScratchBoardReuse() {
+        var scratch = new ScratchBoard();
+        scratch.reset(8, 5, 0, 0, new SplittableRandom(3));
+        scratch.reveal(0, 0);
+        Assertions.assertTrue(scratch.revealedCount >= 4); // the 2x2 corner block, at least
+        scratch.reset(4, 0, 0, 0, new SplittableRandom(3));
+        Assertions.assertEquals(0, scratch.revealedCount);
+        scratch.reveal(3, 3);
+        Assertions.assertTrue(scratch.cleared());
+    }
+}
@@ -0,0 +1,40 @@
+package edu.psu.ist.generator;
+
+import edu.psu.ist.DifferentialTests;
+
+/**
+ * Plays a {@link ScratchBoard} (reveals only) under the differential
+ * harness.
+ */
+public final class ScratchEngine implements DifferentialTests.Engine {
+
+    private final ScratchBoard board = new ScratchBoard();
+
+    public ScratchEngine(int dim, boolean[] mines) {
+        board.reset(dim, mines);
+    }
+
+    @Override public boolean supports(DifferentialTests.Kind kind) {
+        return kind == DifferentialTests.Kind.Reveal;
+    }
+
+    @Override public int apply(DifferentialTests.Op op) {
+        if (board.mines[op.row() * board.dim + op.col()]) {
+            return -1;
+        }
+        board.reveal(op.row(), op.col());
+        return 0;
+    }
+
+    @Override public int code(int row, int col) {
+        return board.mines[row * board.dim + col] ? -1 : board.playerCode(row, col);
+    }
+
+    @Override public int adjacentMines(int row, int col) {
+        return board.counts[row * board.dim + col];
+    }
+
+    @Override public boolean won() {
+        return board.cleared();
+    }
+}
@@ -0,0 +1,62 @@
+package edu.psu.ist.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+public final class HistogramTests {
+
+    @Test public void testBucketBoundsCoverValues() {
+        // every value must land in a bucket whose upper bound is >= the value
+        // and within 12.5% of it
+        for (long v : new long[]{0, 1, 7, 8, 9, 15, 16, 17, 1000, 123_456_789L, Long.MAX_VALUE}) {
+            var upper = Histogram.bucketUpperBound(Histogram.bucketIndex(v));
+            Assertions.assertTrue(upper >= v, "bucket for " + v);
+            Assertions.assertTrue(upper - v <= Math.max(v / 8, 0) + 1, "bucket width for " + v);
+        }
+    }
+
+    @Test public void testPercentiles() {
+        var h = new Metrics().histogram("t", Histogram.Unit.Count);
+        for (int i = 1; i <= 100; i++) {
+            h.record(i);
+        }
+        Assertions.assertEquals(100, h.count());
+        Assertions.assertEquals(100, h.max());
+        Assertions.assertEquals(50.5, h.mean(), 1e-9);
+        // percentiles are bucket upper bounds (so within 12.5% of exact)
+        Assertions.assertTrue(h.percentile(50) >= 50 && h.percentile(50) <= 56);
+        Assertions.assertEquals(100, h.percentile(100));
+    }
+
+    @Test public void testCountersRender() {
+        var m = new Metrics();
+        m.counter("a.moves").add(3);
+        m.histogram("b.latency", Histogram.Unit.Nanos).record(2_000);
+        var text = m.render();
+        Assertions.assertTrue(text.contains("a.moves: 3"));
+        Assertions.assertTrue(text.contains("b.latency: n=1"));
+    }
+
+    @Test public void testClosingAPeriodicDumpEndsItsThread(@TempDir Path dir) throws Exception {
+        var file = dir.resolve("stats.log");
+        var dump = new Metrics().dumpPeriodically(file, Duration.ofMillis(5));
+        for (int i = 0; i < 200 && !Files.exists(file); i++) {
+            Thread.sleep(10);
+        }
+        dump.close();
+        for (int i = 0; i < 200 && dumpThreadAlive(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(Files.exists(file));
+        Assertions.assertFalse(dumpThreadAlive());
+    }
+
+    private static boolean dumpThreadAlive() {
+        return Thread.getAllStackTraces().keySet().stream().anyMatch(t -> t.getName().equals("metrics-dump"));
+    }
+}
@@ -0,0 +1,141 @@
+package edu.psu.ist.save;
+
+import edu.psu.ist.MinesweeperGame;
+import edu.psu.ist.SquareBoard;
+import edu.psu.ist.Topology;
+import edu.psu.ist.generator.RandomBoards;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class AutoSaverTests {
+
+    @Test public void testSavesLatestBoardOfAGame(@TempDir Path dir) throws Exception {
+        var g = new MinesweeperGame(RandomBoards.random(12, 10, 5));
+        try (var saver = new AutoSaver(dir, "game", 2)) {
+            g.deltas().subscribe(saver);
+            for (int r = 0; r < 12; r++) {
+                for (int c = 0; c < 12; c++) {
+                    if (!g.board().tileAt(r, c).isMine()) {
+                        g.advanceGame(r, c);
+                    }
+                }
+            }
+            g.toggleFlag(0, 0);
+            // (publishing is asynchronous: wait until the saver has seen the last move)
+            for (int i = 0; i < 500 && !isLatest(dir, g.board()); i++) {
+                Thread.sleep(10);
+                saver.flush();
+            }
+        }
+        Assertions.assertEquals(g.board(), AutoSaver.loadLatest(dir, "game").get());
+        try (var files = Files.list(dir)) {
+            var names = files.map(f -> f.getFileName().toString()).toList();
+            // at most 2 generations kept (moves may coalesce into fewer writes), no temp file
+            Assertions.assertTrue(!names.isEmpty() && names.size() <= 2, names.toString());
+            Assertions.assertTrue(names.stream().allMatch(n -> n.endsWith(AutoSaver.Extension)), names.toString());
+        }
+    }
+
+    @Test public void testBurstsAreCoalesced(@TempDir Path dir) throws Exception {
+        var boards = new SquareBoard[1000];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = RandomBoards.random(8, 8, i);
+        }
+        long writes;
+        try (var saver = new AutoSaver(dir, "burst", 3)) {
+            for (var b : boards) {
+                saver.offer(b);
+            }
+            saver.flush();
+            writes = saver.writes();
+        }
+        Assertions.assertTrue(writes >= 1 && writes < boards.length, "writes: " + writes);
+        Assertions.assertEquals(boards[boards.length - 1], AutoSaver.loadLatest(dir, "burst").get());
+    }
+
+    @Test public void testDamagedSaveFallsBackToOlderGeneration(@TempDir Path dir) throws Exception {
+        var older = new SquareBoard.ValidatingBoardBuilder().topology(Topology.Hexagonal) //
+                .row("*F") //
+                .row("1_").build().get();
+        var newer = RandomBoards.random(4, 2, 1);
+        try (var saver = new AutoSaver(dir, "g", 3)) {
+            saver.offer(older);
+            saver.flush();
+            saver.offer(newer);
+        }
+        var newest = dir.resolve("g.2" + AutoSaver.Extension);
+        Assertions.assertEquals(newer, AutoSaver.read(newest).get());
+        flipLastByte(newest);
+        Assertions.assertTrue(AutoSaver.read(newest).isError());
+        Assertions.assertEquals(older, AutoSaver.loadLatest(dir, "g").get());
+
+        // a new saver picks up the generation numbering where it left off
+        try (var saver = new AutoSaver(dir, "g", 3)) {
+            saver.offer(newer);
+        }
+        Assertions.assertEquals(newer, AutoSaver.read(dir.resolve("g.3" + AutoSaver.Extension)).get());
+    }
+
+    @Test public void testFinishedGameIsNotResumed(@TempDir Path dir) throws Exception {
+        var before = RandomBoards.random(6, 4, 1);
+        var last = RandomBoards.random(6, 4, 2);
+        var saver = new AutoSaver(dir, "g", 3);
+        saver.offer(before);
+        saver.flush();
+        saver.finish(last);
+        saver.offer(before); // (too late: the game is over)
+        Assertions.assertEquals(last, AutoSaver.read(dir.resolve("g.2" + AutoSaver.Extension)).get());
+        Assertions.assertTrue(AutoSaver.loadLatest(dir, "g").isError());
+
+        // a new game's saves are resumable again
+        try (var next = new AutoSaver(dir, "g", 3)) {
+            next.offer(before);
+        }
+        Assertions.assertEquals(before, AutoSaver.loadLatest(dir, "g").get());
+    }
+
+    @Test public void testCloseWhenInterrupted(@TempDir Path dir) throws Exception {
+        var saver = new AutoSaver(dir, "g", 3);
+        saver.offer(RandomBoards.random(6, 4, 1));
+        Thread.currentThread().interrupt();
+        try {
+            saver.close();
+            Assertions.assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        saver.close(); // (uninterrupted: waits for the writer before the temp dir goes)
+    }
+
+    @Test public void testConcurrentSessionsKeepTheirSaves(@TempDir Path dir) throws Exception {
+        var a = RandomBoards.random(6, 4, 1);
+        var b = RandomBoards.random(6, 4, 2);
+        try (var first = new AutoSaver(dir, "g", 3); var second = new AutoSaver(dir, "g", 3)) {
+            first.offer(a);
+            second.offer(b);
+            first.flush();
+            second.flush();
+        }
+        try (var files = Files.list(dir)) {
+            var boards = files.map(f -> AutoSaver.read(f).get()).toList();
+            Assertions.assertEquals(2, boards.size());
+            Assertions.assertTrue(boards.contains(a) && boards.contains(b), boards.toString());
+        }
+    }
+
+    private static boolean isLatest(Path dir, SquareBoard board) {
+        var latest = AutoSaver.loadLatest(dir, "game");
+        return latest.isOk() && latest.get().equals(board);
+    }
+
+    private static void flipLastByte(Path f) throws IOException {
+        var bytes = Files.readAllBytes(f);
+        bytes[bytes.length - 2] = (byte) (bytes[bytes.length - 2] == '_' ? '*' : '_');
+        Files.write(f, bytes);
+    }
+}
@@ -0,0 +1,61 @@
+package edu.psu.ist.scoring;
+
+import edu.psu.ist.SquareBoard;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.Locale;
+
+public final class BoardScorerTests {
+
+    @Test public void testScore01() {
+        // two openings (top right, bottom left); numbers (2,3),(3,2),(3,3)
+        // border neither, so each takes a click of its own
+        var b = new SquareBoard.ValidatingBoardBuilder() //
+                .row("*___") //
+                .row("____") //
+                .row("__*_") //
+                .row("____").build();
+        Assertions.assertTrue(b.isOk());
+        var score = BoardScorer.score(b.get());
+        Assertions.assertEquals(new BoardScore(4, 2, 2, 3, 5), score);
+        Assertions.assertEquals(0.125, score.mineDensity(), 1e-9);
+    }
+
+    @Test public void testScoreAllNumbers() {
+        var b = new SquareBoard.ValidatingBoardBuilder() //
+                .row("_*") //
+                .row("*_").build();
+        Assertions.assertTrue(b.isOk());
+        Assertions.assertEquals(new BoardScore(2, 2, 0, 2, 2), BoardScorer.score(b.get()));
+    }
+
+    @Test public void testBatchScoreDirectory() throws Exception {
+        var dir = Files.createTempDirectory("boards");
+        Files.writeString(dir.resolve("b.swp"), "_*\n*_\n");
+        Files.writeString(dir.resolve("a.swp"), "___\n___\n___\n");
+        Files.writeString(dir.resolve("c.swp"), "_a\n__\n");
+        Files.writeString(dir.resolve("ignored.txt"), "__\n__\n");
+        var out = dir.resolve("out.csv");
+
+        var res = BatchScorer.scoreDirectory(dir, out, 2);
+        Assertions.assertTrue(res.isOk());
+        Assertions.assertEquals(3, res.get());
+        Assertions.assertEquals(java.util.List.of(
+                "file,dimension,mines,density,openings,isolated,3bv,error",
+                "a.swp,3,0,0.0000,1,0,1,",
+                "b.swp,2,2,0.5000,0,2,2,",
+                "c.swp,,,,,,,unrecognized cell: a"), Files.readAllLines(out));
+    }
+
+    @Test public void testCsvIgnoresDefaultLocale() {
+        var saved = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.GERMANY);
+            Assertions.assertEquals("2,2,0.5000,0,2,2", new BoardScore(2, 2, 0, 2, 2).toCsv());
+        } finally {
+            Locale.setDefault(saved);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package edu.psu.ist.server;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.time.Duration;
+
+public final class GameServerTests {
+
+    @Test public void testProtocol() throws Exception {
+        try (var server = GameServer.start(0, Duration.ofMinutes(1));
+             var sock = new Socket("localhost", server.port());
+             var in = new BufferedReader(new InputStreamReader(sock.getInputStream()));
+             var out = new PrintWriter(sock.getOutputStream(), true)) {
+
+            out.println("NEW 3 0 1"); // no mines: one click wins
+            var id = in.readLine().substring(3);
+            out.println("SHOW " + id);
+            Assertions.assertEquals("OK ___/___/___", in.readLine());
+            out.println("MOVE " + id + " 1 1");
+            Assertions.assertEquals("WIN 0", in.readLine());
+            out.println("MOVE " + id + " 0 0");
+            Assertions.assertEquals("ERR game over", in.readLine());
+
+            out.println("NEW 2 3 1"); // every cell but one is a mine
+            var id2 = in.readLine().substring(3);
+            out.println("MOVE " + id2 + " 5 5");
+            Assertions.assertEquals("ERR out of bounds", in.readLine());
+            out.println("FLY " + id2);
+            Assertions.assertTrue(in.readLine().startsWith("ERR unrecognized"));
+
+            Assertions.assertEquals(2, server.sessionCount());
+            out.println("END " + id);
+            Assertions.assertEquals("OK", in.readLine());
+            Assertions.assertEquals(1, server.sessionCount());
+        }
+    }
+
+    @Test public void testIdleSessionsEvicted() throws Exception {
+        try (var server = GameServer.start(0, Duration.ofMillis(50))) {
+            Assertions.assertTrue(server.handle("NEW 4 2 1").startsWith("OK"));
+            Assertions.assertEquals(1, server.sessionCount());
+            var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (server.sessionCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Assertions.assertEquals(0, server.sessionCount());
+        }
+    }
+
+    @Test public void testLoadGenerator() throws Exception {
+        try (var server = GameServer.start(0, Duration.ofMinutes(1))) {
+            var report = LoadGenerator.run("localhost", server.port(), 50, 20, 8, 6);
+            Assertions.assertEquals(50 * 20, report.moves());
+            Assertions.assertTrue(report.p50() <= report.p99());
+        }
+    }
+
+    @Test public void testCloseDropsConnections() throws Exception {
+        var server = GameServer.start(0, Duration.ofMinutes(1));
+        try (var sock = new Socket("localhost", server.port());
+             var in = new BufferedReader(new InputStreamReader(sock.getInputStream()));
+             var out = new PrintWriter(sock.getOutputStream(), true)) {
+            out.println("NEW 4 2 1");
+            Assertions.assertTrue(in.readLine().startsWith("OK"));
+            server.close();
+            Assertions.assertNull(in.readLine());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package edu.psu.ist.sim;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+public final class CoordinatorTests {
+
+    @Test public void testSimulationIsDeterministic() {
+        var sim = new Simulator();
+        for (long seed = 0; seed < 20; seed++) {
+            var a = sim.play(9, 10, seed);
+            var b = new Simulator().play(9, 10, seed);
+            Assertions.assertEquals(a.won(), b.won());
+            Assertions.assertEquals(a.moves(), b.moves());
+        }
+    }
+
+    @Test public void testDeadWorkersShardIsReassigned() throws InterruptedException {
+        var dim = 9;
+        var mines = 10;
+        // shard 0's first worker halts after 5 games
+        Coordinator.Launcher launcher = (shard, attempt) -> {
+            var cmd = new ArrayList<>(Coordinator.workerCommand(shard, dim, mines));
+            if (shard.id() == 0 && attempt == 0) {
+                cmd.add("5");
+            }
+            return new ProcessBuilder(cmd).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        };
+        var report = new Coordinator(launcher).run(2, 100, 40);
+
+        var sim = new Simulator();
+        var wins = 0;
+        for (long seed = 100; seed < 140; seed++) {
+            wins += sim.play(dim, mines, seed).won() ? 1 : 0;
+        }
+        Assertions.assertEquals(40, report.games());
+        Assertions.assertEquals(wins, report.wins());
+        Assertions.assertEquals(1, report.reassigned());
+        Assertions.assertEquals(0, report.failedShards());
+        Assertions.assertEquals(40, report.latency().count());
+    }
+}
@@ -0,0 +1,101 @@
+package edu.psu.ist.solver;
+
+import edu.psu.ist.MinesweeperGame;
+import edu.psu.ist.SquareBoard;
+import edu.psu.ist.TileType;
+import edu.psu.ist.Topology;
+import edu.psu.ist.generator.RandomBoards;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public final class HintServiceTests {
+
+    // follows hints until the game's won or lost, checking each safe hint
+    // (and that a from-scratch service never knows a safe cell the cached
+    // one has missed); returns true on a win
+    private static boolean playByHints(MinesweeperGame g, int undoEvery) {
+        var moves = 0;
+        while (!g.inWinState()) {
+            var hint = g.hint().orElseThrow();
+            var fresh = new HintService().hint(g.board()).orElseThrow();
+            Assertions.assertTrue(hint.safe() || !fresh.safe(), "missed a safe cell at " + fresh);
+            var tile = g.revealSquare(hint.row(), hint.col());
+            if (tile instanceof TileType.Mine) {
+                Assertions.assertFalse(hint.safe(), "'safe' hint was a mine: " + hint);
+                return false;
+            }
+            g.advanceGame(hint.row(), hint.col());
+            if (undoEvery > 0 && ++moves % undoEvery == 0) {
+                g.undo();
+                g.undo();
+                g.redo();
+            }
+        }
+        Assertions.assertTrue(g.hint().isEmpty());
+        return true;
+    }
+
+    @Test public void testSafeHintsAreNeverMines() {
+        var wins = 0;
+        for (long seed = 0; seed < 40; seed++) {
+            wins += playByHints(new MinesweeperGame(RandomBoards.random(16, 30, seed)), 0) ? 1 : 0;
+        }
+        Assertions.assertTrue(wins > 0);
+    }
+
+    @Test public void testCachedAnalysisSurvivesUndoRedo() {
+        for (long seed = 0; seed < 20; seed++) {
+            playByHints(new MinesweeperGame(RandomBoards.random(12, 20, seed)), 3);
+        }
+    }
+
+    @Test public void testOtherTopologies() {
+        var rnd = new Random(42);
+        for (var topology : Topology.values()) {
+            for (int n = 0; n < 10; n++) {
+                var b = new SquareBoard.ValidatingBoardBuilder().topology(topology);
+                for (int r = 0; r < 10; r++) {
+                    var row = new StringBuilder();
+                    for (int c = 0; c < 10; c++) {
+                        row.append(rnd.nextInt(8) == 0 ? '*' : '_');
+                    }
+                    b.row(row.toString());
+                }
+                playByHints(new MinesweeperGame(b.build().get()), 0);
+            }
+        }
+    }
+
+    @Test public void testLowestRiskWithoutSafeCells() {
+        var g = new MinesweeperGame(new SquareBoard.ValidatingBoardBuilder()
+                .row("*_") //
+                .row("__").build().get());
+        // nothing uncovered yet: every cell is a 1 in 4 guess
+        var first = g.hint().orElseThrow();
+        Assertions.assertFalse(first.safe());
+        Assertions.assertEquals(0.25, first.risk(), 1e-9);
+
+        // a 1 at (1,1) with 3 unknowns around it: a 1 in 3 guess, not safe
+        g.advanceGame(1, 1);
+        var second = g.hint().orElseThrow();
+        Assertions.assertFalse(second.safe());
+        Assertions.assertEquals(1 / 3.0, second.risk(), 1e-6);
+    }
+
+    @Test public void testNoHintOnceWon() {
+        var g = new MinesweeperGame(new SquareBoard.ValidatingBoardBuilder()
+                .row("*_") //
+                .row("__").build().get());
+        g.advanceGame(0, 1);
+        g.advanceGame(1, 0);
+        g.advanceGame(1, 1);
+        Assertions.assertTrue(g.inWinState());
+        Assertions.assertTrue(g.hint().isEmpty());
+
+        // undoing the winning move leaves a (1 in 2) guess to hint at again
+        Assertions.assertTrue(g.undo());
+        Assertions.assertEquals(0.5, g.hint().orElseThrow().risk(), 1e-6);
+    }
+}
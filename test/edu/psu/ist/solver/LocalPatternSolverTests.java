@@ -0,0 +1,78 @@
+package edu.psu.ist.solver;
+
+import edu.psu.ist.SquareBoard;
+import edu.psu.ist.immutableadts.Pair;
+import io.vavr.collection.Vector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public final class LocalPatternSolverTests {
+
+    private static SquareBoard board(String... rows) {
+        var b = new SquareBoard.ValidatingBoardBuilder();
+        for (var r : rows) {
+            b.row(r);
+        }
+        var res = b.build();
+        Assertions.assertTrue(res.isOk());
+        return res.get();
+    }
+
+    @Test public void testZerosClearNeighboursThenNumberPinsMine() {
+        var b = board(
+                "000",
+                "01_",
+                "0_*");
+        var d = new LocalPatternSolver().deduce(b, 1, 1);
+        // the 0s at (0,2) and (1,0)/(2,0) clear (1,2) and (2,1) -- leaving
+        // the 1 at (1,1) with a single unknown: (2,2)
+        Assertions.assertEquals(Vector.of(Pair.of(1, 2), Pair.of(2, 1)), d.safeCells(1, 1));
+        Assertions.assertEquals(Vector.of(Pair.of(2, 2)), d.mineCells(1, 1));
+
+        var b2 = board(
+                "0__",
+                "___",
+                "___");
+        var d2 = new LocalPatternSolver().deduce(b2, 0, 0);
+        Assertions.assertEquals(3, d2.safeCells(0, 0).size());
+        Assertions.assertTrue(d2.safeCells(0, 0).contains(Pair.of(1, 1)));
+    }
+
+    @Test public void testSubsetRule() {
+        // (1,0) sees {(0,0),(0,1)} which is a subset of what (1,1) sees, so
+        // the one extra cell (0,2) holds 1 - 1 = 0 mines; the rest follows
+        var b = board(
+                "_*_",
+                "111",
+                "000");
+        var d = new LocalPatternSolver().deduce(b, 1, 1);
+        Assertions.assertEquals(Vector.of(Pair.of(0, 0), Pair.of(0, 2)), d.safeCells(1, 1));
+        Assertions.assertEquals(Vector.of(Pair.of(0, 1)), d.mineCells(1, 1));
+    }
+
+    @Test public void testCacheHitsForRepeatedPatterns() {
+        var s = new LocalPatternSolver(new PatternCache(64, 4));
+        var b = board(
+                "0__0",
+                "____",
+                "____",
+                "0__0");
+        s.deduce(b, 0, 0);
+        s.deduce(b, 0, 0);
+        Assertions.assertEquals(1, s.cache().misses());
+        Assertions.assertEquals(1, s.cache().hits());
+        Assertions.assertEquals(0.5, s.cache().hitRate(), 1e-9);
+    }
+
+    @Test public void testCacheIsBounded() {
+        var cache = new PatternCache(4, 1);
+        for (int i = 0; i < 10; i++) {
+            cache.get(new PatternKey(0, i), _ -> Deduction.None);
+        }
+        Assertions.assertEquals(4, cache.size());
+        Assertions.assertEquals(6, cache.evictions());
+        // the most recently used survive
+        cache.get(new PatternKey(0, 9), _ -> new Deduction(1, 0));
+        Assertions.assertEquals(1, cache.hits());
+    }
+}